@@ -0,0 +1,37 @@
+// Writes .br and .gz next to every compressible file in build/ so the server can send
+// them as-is instead of compressing on each request. Runs after `npm run build`.
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const BUILD_DIR = path.join(__dirname, '..', 'build');
+const COMPRESSIBLE = /\.(js|css|html|json|svg|txt|map|ico)$/;
+// Below this the headers outweigh the savings
+const MIN_SIZE = 1024;
+
+function walk(dir) {
+  return fs.readdirSync(dir, { withFileTypes: true }).flatMap((entry) => {
+    const full = path.join(dir, entry.name);
+    return entry.isDirectory() ? walk(full) : [full];
+  });
+}
+
+let count = 0;
+for (const file of walk(BUILD_DIR)) {
+  if (!COMPRESSIBLE.test(file)) {
+    continue;
+  }
+  const content = fs.readFileSync(file);
+  if (content.length < MIN_SIZE) {
+    continue;
+  }
+  fs.writeFileSync(`${file}.br`, zlib.brotliCompressSync(content, {
+    params: {
+      [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+      [zlib.constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+    },
+  }));
+  fs.writeFileSync(`${file}.gz`, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+  count++;
+}
+console.log(`Precompressed ${count} files in ${path.relative(process.cwd(), BUILD_DIR)}`);
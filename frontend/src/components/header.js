@@ -113,6 +113,11 @@ const Header = ({
     
     // Remove user data after a short delay to allow the toast to be shown
     setTimeout(() => {
+      const token = localStorage.getItem('userToken');
+      if (token) {
+        fetch('http://localhost:8080/api/users/logout', { method: 'POST', headers: { Authorization: token } })
+          .catch(() => {});
+      }
       ['loggedInUser', 'loggedInUserID', 'UserFName', 'UserLName', 'userToken', 'userData', 'userProjects'].forEach(
         item => localStorage.removeItem(item)
       );
@@ -93,7 +93,7 @@ const ProjectHeader = ({ stats, setShowAddMemberForm }) => {
             >
               {member.user.profilePicture ? (
                 <img 
-                  src={member.user.profilePicture} 
+                  src={member.user.profilePictureThumbnails?.[64] || member.user.profilePicture} 
                   alt={`${member.user.firstName} ${member.user.lastName}`} 
                   className={styles.memberImage}
                 />
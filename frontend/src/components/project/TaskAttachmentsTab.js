@@ -55,16 +55,14 @@ const TaskAttachmentsTab = ({ taskId }) => {
 
     try {
       // Upload each file and collect responses
+      // The file is sent as the raw body so the server can stream it to disk
       const uploadPromises = files.map(file => {
-        const formData = new FormData();
-        formData.append('file', file);
-        
         return axios.post(
-          `http://localhost:8080/api/attachments/task/${taskId}/upload?userId=${userId}`,
-          formData,
+          `http://localhost:8080/api/attachments/task/${taskId}/stream?userId=${userId}&fileName=${encodeURIComponent(file.name)}`,
+          file,
           {
             headers: {
-              'Content-Type': 'multipart/form-data'
+              'Content-Type': file.type || 'application/octet-stream'
             }
           }
         );
@@ -156,6 +156,11 @@ const Sidebar = () => {
   };
 
   const handleLogout = () => {
+    const token = localStorage.getItem('userToken');
+    if (token) {
+      fetch('http://localhost:8080/api/users/logout', { method: 'POST', headers: { Authorization: token } })
+        .catch(() => {});
+    }
     ['loggedInUser', 'loggedInUserID', 'UserFName', 'UserLName', 'userToken', 'userData', 'userProjects'].forEach(
       item => localStorage.removeItem(item)
     );
@@ -3,6 +3,49 @@ import ReactDOM from 'react-dom/client';
 import './index.css';
 import App from './App';
 import reportWebVitals from './reportWebVitals';
+import axios from 'axios';
+
+// Send the access token from login with every API call
+axios.interceptors.request.use(config => {
+  const token = localStorage.getItem('userToken');
+  if (token) {
+    config.headers.Authorization = token;
+  }
+  return config;
+});
+
+// A missing, expired or revoked token: forget it and sign in again
+const signInAgain = challenge => {
+  if (challenge && challenge.startsWith('Bearer')) {
+    localStorage.removeItem('userToken');
+    window.location.assign('/login');
+  }
+};
+
+axios.interceptors.response.use(undefined, error => {
+  signInAgain(error.response && error.response.headers['www-authenticate']);
+  return Promise.reject(error);
+});
+
+// Plain fetch calls to the API get the same treatment, unless they set their own header
+const browserFetch = window.fetch.bind(window);
+window.fetch = (input, init = {}) => {
+  const token = localStorage.getItem('userToken');
+  const url = String(input instanceof Request ? input.url : input);
+  if (!url.includes('/api/')) {
+    return browserFetch(input, init);
+  }
+  const headers = new Headers(init.headers || (input instanceof Request ? input.headers : undefined));
+  if (token && !headers.has('Authorization')) {
+    headers.set('Authorization', token);
+  }
+  return browserFetch(input, { ...init, headers }).then(response => {
+    if (response.status === 401) {
+      signInAgain(response.headers.get('WWW-Authenticate'));
+    }
+    return response;
+  });
+};
 
 const root = ReactDOM.createRoot(document.getElementById('root'));
 root.render(
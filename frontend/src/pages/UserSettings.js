@@ -512,6 +512,12 @@ export default function UserSettings() {
         throw new Error(errorText || `Failed to update password: ${response.statusText}`);
       }
       
+      // Earlier access tokens are revoked by the change; keep the one issued with it
+      const token = response.headers.get('Authorization');
+      if (token) {
+        localStorage.setItem('userToken', token);
+      }
+      
       // If database update successful, update in localStorage
       // Note: We don't actually store the raw password in localStorage for security
       // but we keep the userData object updated to maintain consistency
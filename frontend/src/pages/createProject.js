@@ -31,20 +31,33 @@ const CreateProject = () => {
   const [newMember, setNewMember] = useState('');
   const [errors, setErrors] = useState({});
 
-  // Fetch available users to add as project members
+  // Suggest users matching what has been typed so far, once typing pauses
   useEffect(() => {
-    const fetchUsers = async () => {
+    const query = newMember.trim();
+    if (query.length < 2) {
+      setAvailableUsers([]);
+      return;
+    }
+
+    let cancelled = false;
+    const timer = setTimeout(async () => {
       try {
-        // Replace with your actual users endpoint
-        const response = await axios.get(`${API_BASE_URL}/users`);
-        setAvailableUsers(response.data);
+        const response = await axios.get(`${API_BASE_URL}/users/search`, {
+          params: { q: query, limit: 10 }
+        });
+        if (!cancelled) {
+          setAvailableUsers(response.data);
+        }
       } catch (error) {
-        console.error('Error fetching users:', error);
+        console.error('Error searching users:', error);
       }
-    };
+    }, 200);
 
-    fetchUsers();
-  }, []);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [newMember]);
 
   // Check for mobile view
   useEffect(() => {
@@ -86,6 +86,7 @@ const Login = () => {
         localStorage.setItem("UserFName", user.firstName);
         localStorage.setItem("UserLName", user.lastName);
         localStorage.setItem("loggedInUserID", user.id);
+        localStorage.setItem("userToken", response.headers.get("Authorization"));
         
         // Reset form
         setFormData({ email: '', password: '' });
@@ -194,6 +194,10 @@ export default function UserSettings() {
 
       if (!response.ok) throw new Error("Failed to update password");
 
+      // Earlier access tokens are revoked by the change; keep the one issued with it
+      const token = response.headers.get("Authorization");
+      if (token) localStorage.setItem("userToken", token);
+
       alert("Password updated successfully!");
       setPasswordData({ newPassword: '', confirmPassword: '' });
     } catch (error) {
@@ -2,7 +2,9 @@ package com.example.worksphere;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
+@EnableScheduling
 public class WorksphereApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(WorksphereApplication.class, args);
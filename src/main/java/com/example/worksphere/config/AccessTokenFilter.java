@@ -0,0 +1,68 @@
+package com.example.worksphere.config;
+
+import com.example.worksphere.dto.AuthenticatedUser;
+import com.example.worksphere.service.AccessTokenService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} from the token alone.
+ *
+ * A bad or revoked token is refused with 401. A valid one becomes the request's principal,
+ * and the {@code userId} parameter the API takes for the acting user must match it. Requests
+ * without a token pass through unauthenticated; SecurityConfig decides which of them may proceed.
+ */
+public class AccessTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+
+    public AccessTokenFilter(AccessTokenService accessTokenService) {
+        this.accessTokenService = accessTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<AuthenticatedUser> principal = accessTokenService.verify(header.substring(BEARER.length()).trim());
+        if (principal.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired access token");
+            return;
+        }
+
+        AuthenticatedUser user = principal.get();
+        String[] requestedUserIds = request.getParameterValues("userId");
+        if (requestedUserIds != null) {
+            for (String requested : requestedUserIds) {
+                if (!requested.equals(user.id().toString())) {
+                    response.sendError(HttpServletResponse.SC_FORBIDDEN, "userId does not match the access token");
+                    return;
+                }
+            }
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.role()))));
+        chain.doFilter(request, response);
+    }
+}
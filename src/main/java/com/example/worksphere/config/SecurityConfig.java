@@ -1,27 +1,86 @@
 package com.example.worksphere.config;
 
+import com.example.worksphere.dto.AuthenticatedUser;
+import com.example.worksphere.service.AccessTokenService;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.Map;
 
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * New hashes are written as {bcrypt}... at the configured cost. Older hashes, stored
+     * without an id prefix or at a lower cost, still verify and are rewritten on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${worksphere.password-hashing.bcrypt-strength:10}") int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
+    /**
+     * No server-side session: the caller is re-established from the bearer token on every request,
+     * so any instance can serve any request.
+     *
+     * Every API call needs a token except signing up, logging in and the e-mail check, plus the
+     * STOMP handshake, which authenticates on its CONNECT frame instead. Paths naming a user by id
+     * are limited to that user. The frontend, uploads and actuator stay open.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AccessTokenService accessTokenService) throws Exception {
         return http
             .csrf(csrf -> csrf.disable()) 
+            .cors(Customizer.withDefaults()) // WebConfig's mappings, also on responses the token filter ends
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new AccessTokenFilter(accessTokenService), UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint((request, response, e) -> {
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Access token required");
+                })
+            )
             .authorizeHttpRequests(auth -> auth
-                .anyRequest().permitAll() // Allow all requests temporarily
+                // Already authorized on the original request; async login and password changes resume here
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/users/signup", "/api/users/login").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users/check-email").permitAll()
+                .requestMatchers(WebSocketConfig.STOMP_ENDPOINT).permitAll()
+                .requestMatchers("/api/users/search", "/api/users/logout").authenticated()
+                .requestMatchers("/api/users/{id}", "/api/users/{id}/**").access(pathUser("id"))
+                .requestMatchers("/api/task-activities/user/{userId}").access(pathUser("userId"))
+                .requestMatchers("/api/**").authenticated()
+                .anyRequest().permitAll()
             )
             .build();
     }
+
+    /**
+     * Only the user the path variable names, as proven by their access token
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> pathUser(String variable) {
+        return (authentication, context) -> new AuthorizationDecision(
+                authentication.get().getPrincipal() instanceof AuthenticatedUser user
+                        && user.getName().equals(context.getVariables().get(variable)));
+    }
 }
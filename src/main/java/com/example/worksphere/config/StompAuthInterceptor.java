@@ -0,0 +1,109 @@
+package com.example.worksphere.config;
+
+import com.example.worksphere.dto.AuthenticatedUser;
+import com.example.worksphere.service.AccessTokenService;
+import com.example.worksphere.service.ProjectAccessCache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Authenticates STOMP sessions from the access token and guards what they may subscribe to.
+ *
+ * Browsers cannot set headers on the WebSocket handshake, so the token travels in the
+ * {@code Authorization} header of the CONNECT frame instead. The verified caller becomes the
+ * session's principal, which is also what {@code /user/...} destinations resolve against.
+ * Board and project topics are open to whoever can see the project, checked once per SUBSCRIBE.
+ */
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER = "Bearer ";
+    private static final String BOARD_TOPIC = "/topic/boards/";
+    private static final String PROJECT_TOPIC = "/topic/projects/";
+
+    private final AccessTokenService accessTokenService;
+    private final ProjectAccessCache projectAccessCache;
+
+    public StompAuthInterceptor(AccessTokenService accessTokenService, ProjectAccessCache projectAccessCache) {
+        this.accessTokenService = accessTokenService;
+        this.projectAccessCache = projectAccessCache;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            AuthenticatedUser user = authenticate(accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION));
+            accessor.setUser(new UsernamePasswordAuthenticationToken(
+                    user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.role()))));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            authorizeSubscription(principal(accessor), accessor.getDestination());
+        }
+        return message;
+    }
+
+    private AuthenticatedUser authenticate(String header) {
+        if (header == null || !header.startsWith(BEARER)) {
+            throw new AccessDeniedException("Missing access token");
+        }
+        return accessTokenService.verify(header.substring(BEARER.length()).trim())
+                .orElseThrow(() -> new AccessDeniedException("Invalid or expired access token"));
+    }
+
+    /**
+     * User destinations resolve to the caller's own queue, e.g. /user/queue/notifications;
+     * board and project topics need view access to the project
+     */
+    private void authorizeSubscription(AuthenticatedUser user, String destination) {
+        if (destination == null) {
+            throw new AccessDeniedException("Missing destination");
+        }
+        if (destination.startsWith("/user/")) {
+            return;
+        }
+
+        try {
+            Long projectId;
+            if (destination.startsWith(BOARD_TOPIC)) {
+                projectId = projectAccessCache.projectIdForBoard(idAfter(BOARD_TOPIC, destination));
+            } else if (destination.startsWith(PROJECT_TOPIC)) {
+                projectId = idAfter(PROJECT_TOPIC, destination);
+            } else {
+                throw new AccessDeniedException("Cannot subscribe to " + destination);
+            }
+            if (projectAccessCache.resolve(user.id(), projectId).canView(user.id())) {
+                return;
+            }
+        } catch (NumberFormatException | ResponseStatusException e) {
+            // Malformed id, or no such board or project
+        }
+        throw new AccessDeniedException("Cannot subscribe to " + destination);
+    }
+
+    private static Long idAfter(String prefix, String destination) {
+        return Long.valueOf(destination.substring(prefix.length()));
+    }
+
+    private static AuthenticatedUser principal(StompHeaderAccessor accessor) {
+        if (accessor.getUser() instanceof UsernamePasswordAuthenticationToken token
+                && token.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        throw new AccessDeniedException("Not authenticated");
+    }
+}
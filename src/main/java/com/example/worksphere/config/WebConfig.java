@@ -1,9 +1,16 @@
 package com.example.worksphere.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -14,13 +21,63 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("Authorization", "WWW-Authenticate") // access token issued at login, and why it was refused
                 .allowCredentials(true)
                 .maxAge(3600); // 1 hour for caching preflight requests
     }
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+        // Named after their content hash, so a URL always means the same bytes
+        CacheControl immutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        registry.addResourceHandler("/uploads/avatars/**")
+                .addResourceLocations("file:uploads/avatars/")
+                .setCacheControl(immutable);
+        // Profile picture thumbnails only; attachment previews go through the attachment API
+        registry.addResourceHandler("/uploads/thumbnails/**")
+                .addResourceLocations("file:uploads/thumbnails/")
+                .setCacheControl(immutable);
+
+        // Profile pictures from before content hashing: short cache, then cheap revalidation.
+        // Content-versioned URLs (name-<md5>.ext) resolve too, for links built with ResourceUrlProvider.
+        // Only the legacy picture locations are mapped. /uploads/* is a single path segment, so
+        // task attachments and their previews below uploads/ are never served from here.
+        addLegacyPictures(registry, "/uploads/profile_pictures/**", "file:uploads/profile_pictures/");
+        addLegacyPictures(registry, "/uploads/*", "file:uploads/");
+
+        // The React build fingerprints everything under /static, so those never change in place.
+        // Both handlers send the .br/.gz files written by the frontend postbuild step when accepted.
+        registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/static/")
+                .setCacheControl(immutable)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        // index.html, manifest and icons keep their names across builds: always revalidate
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+
+    private static void addLegacyPictures(ResourceHandlerRegistry registry, String pattern, String location) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+                .setEtagGenerator(WebConfig::fileEtag)
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Validator from size and modification time, so revalidation never reads the file
+     */
+    private static String fileEtag(Resource resource) {
+        try {
+            return "\"" + Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength()) + "\"";
+        } catch (IOException e) {
+            return null;
+        }
     }
 }
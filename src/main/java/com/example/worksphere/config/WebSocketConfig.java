@@ -0,0 +1,47 @@
+package com.example.worksphere.config;
+
+import com.example.worksphere.service.AccessTokenService;
+import com.example.worksphere.service.ProjectAccessCache;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    // Two segments deep so the single-segment frontend forward does not swallow the handshake
+    public static final String STOMP_ENDPOINT = "/api/ws";
+
+    private final AccessTokenService accessTokenService;
+    private final ProjectAccessCache projectAccessCache;
+
+    public WebSocketConfig(AccessTokenService accessTokenService, ProjectAccessCache projectAccessCache) {
+        this.accessTokenService = accessTokenService;
+        this.projectAccessCache = projectAccessCache;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint(STOMP_ENDPOINT)
+                .setAllowedOrigins("http://localhost:3000");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        // Server-to-client pushes only: card and column changes on /topic/boards/{boardId}, task status
+        // changes on /topic/projects/{projectId}, and per-user queues addressed as /user/queue/notifications
+        registry.enableSimpleBroker("/topic", "/queue");
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StompAuthInterceptor(accessTokenService, projectAccessCache));
+    }
+}
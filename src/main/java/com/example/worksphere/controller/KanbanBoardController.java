@@ -106,7 +106,7 @@ public class KanbanBoardController {
      * Update column order (for drag and drop of columns)
      */
     @PutMapping("/board/{boardId}/columns/order")
-    public ResponseEntity<KanbanBoardDTO> updateColumnOrder(
+    public ResponseEntity<KanbanColumnOrderDTO> updateColumnOrder(
             @PathVariable Long boardId,
             @RequestBody KanbanColumnOrderDTO orderDTO,
             @RequestParam Long userId) {
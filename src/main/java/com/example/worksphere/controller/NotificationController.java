@@ -4,6 +4,7 @@ import com.example.worksphere.dto.NotificationDTO;
 import com.example.worksphere.entity.Notification;
 import com.example.worksphere.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -46,6 +47,29 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get one page of notifications for the current user, newest first.
+     * Pass nextCursor from the previous response as before to get the following page.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<Map<String, Object>> getNotificationFeed(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit) {
+        Slice<Notification> page = notificationService.getNotificationFeed(userId, before, Math.min(Math.max(limit, 1), 100));
+        List<NotificationDTO> notificationDTOs = page.getContent().stream()
+                .map(NotificationDTO::fromEntity)
+                .collect(Collectors.toList());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("ok", true);
+        response.put("notifications", notificationDTOs);
+        response.put("count", notificationDTOs.size());
+        response.put("nextCursor", notificationService.nextFeedCursor(page));
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get unread notification count for the current user
      */
@@ -1,20 +1,29 @@
 package com.example.worksphere.controller;
 
+import com.example.worksphere.dto.Thumbnails;
 import com.example.worksphere.entity.TaskAttachment;
+import com.example.worksphere.service.FileResponseWriter;
 import com.example.worksphere.service.TaskAttachmentService;
+import com.example.worksphere.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
@@ -31,6 +40,11 @@ import java.util.Map;
 public class TaskAttachmentController {
     
     private final TaskAttachmentService taskAttachmentService;
+    private final FileResponseWriter fileResponseWriter;
+    private final ThumbnailService thumbnailService;
+    
+    @Value("${spring.servlet.multipart.max-file-size:50MB}")
+    private DataSize maxFileSize;
     
     /**
      * Get all attachments for a task.
@@ -57,30 +71,111 @@ public class TaskAttachmentController {
         return ResponseEntity.ok(attachment);
     }
     
+    /**
+     * Upload an attachment sent as the raw request body, without multipart buffering.
+     * The body is streamed to disk; Content-Type is stored as the attachment's type.
+     */
+    @PostMapping("/task/{taskId}/stream")
+    public ResponseEntity<TaskAttachment> streamAttachment(
+            @PathVariable Long taskId,
+            @RequestParam String fileName,
+            @RequestParam Long userId,
+            HttpServletRequest request) throws IOException {
+        
+        if (request.getContentLengthLong() > maxFileSize.toBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Attachments are limited to " + maxFileSize.toMegabytes() + "MB");
+        }
+        
+        TaskAttachment attachment = taskAttachmentService.uploadAttachment(
+                taskId, fileName, request.getContentType(), request.getInputStream(), userId);
+        return ResponseEntity.ok(attachment);
+    }
+    
     /**
      * Download an attachment.
+     * Supports single byte ranges and conditional GET on the content hash, so media and PDF
+     * previews can seek and unchanged files are not sent again.
+     *
+     * The stored type is whatever the uploader declared, so it is never sniffed, and inline
+     * display is limited to types a browser cannot run script from. Anything else, e.g. HTML
+     * or SVG, is always sent as a sandboxed download.
      */
     @GetMapping("/download/{attachmentId}")
-    public ResponseEntity<Resource> downloadAttachment(
+    public void downloadAttachment(
             @PathVariable Long attachmentId,
-            @RequestParam Long userId) 
-            throws MalformedURLException {
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "false") boolean inline,
+            ServletWebRequest webRequest) throws IOException {
         
-        TaskAttachment attachment = taskAttachmentService.findById(attachmentId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+        TaskAttachment attachment = taskAttachmentService.getAttachment(attachmentId, userId);
         
         Path filePath = Paths.get(attachment.getFilePath());
-        Resource resource = new UrlResource(filePath.toUri());
-        
-        if (!resource.exists() || !resource.isReadable()) {
+        if (!Files.isReadable(filePath)) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not read file");
         }
         
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                        "attachment; filename=\"" + attachment.getFileName() + "\"")
-                .body(resource);
+        String etag = attachment.getContentHash() != null ? "\"" + attachment.getContentHash() + "\"" : null;
+        String contentType = attachment.getContentType() != null
+                ? attachment.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        boolean showInline = inline && isSafeInline(contentType);
+        ContentDisposition disposition = (showInline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build();
+        
+        HttpServletResponse response = webRequest.getResponse();
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (!isSafeInline(contentType)) {
+            response.setHeader("Content-Security-Policy", "sandbox");
+        }
+        
+        // Private to the user, but revalidated cheaply through the ETag
+        fileResponseWriter.write(webRequest, filePath, etag, contentType, disposition.toString(),
+                CacheControl.noCache().cachePrivate());
+    }
+    
+    /**
+     * Preview of an image attachment, with the same access check as the download.
+     * 404 until the background render has finished.
+     */
+    @GetMapping("/{attachmentId}/thumbnail")
+    public void getThumbnail(
+            @PathVariable Long attachmentId,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "" + Thumbnails.PREVIEW_SIZE) int size,
+            ServletWebRequest webRequest) throws IOException {
+        
+        if (!Thumbnails.isSupportedSize(size)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported thumbnail size");
+        }
+        TaskAttachment attachment = taskAttachmentService.getAttachment(attachmentId, userId);
+        if (attachment.getThumbnailUrl() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment has no preview");
+        }
+        Path thumbnail = thumbnailService.findAttachmentThumbnail(attachment.getContentHash(), size)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Preview not ready"));
+        
+        webRequest.getResponse().setHeader("X-Content-Type-Options", "nosniff");
+        // Private like the download; the hash-based ETag makes revalidation free
+        fileResponseWriter.write(webRequest, thumbnail, "\"" + attachment.getContentHash() + "-" + size + "\"",
+                MediaType.IMAGE_PNG_VALUE, null, CacheControl.noCache().cachePrivate());
+    }
+    
+    /**
+     * Images other than SVG, PDF, audio and video
+     */
+    static boolean isSafeInline(String contentType) {
+        MediaType type;
+        try {
+            type = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return switch (type.getType()) {
+            case "image" -> !type.getSubtype().contains("svg");
+            case "audio", "video" -> true;
+            default -> MediaType.APPLICATION_PDF.equalsTypeAndSubtype(type);
+        };
     }
     
     /**
@@ -9,21 +9,26 @@ import com.example.worksphere.dto.*;
 import com.example.worksphere.repository.*;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Optional;
 
 @RestController
-@CrossOrigin(origins = "http://localhost:3000") 
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = TaskController.NEXT_CURSOR_HEADER) 
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private TaskService taskService;
 
@@ -43,20 +48,46 @@ public class TaskController {
      * Get all tasks with filtering options
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getTasks(
+    public ResponseEntity<List<TaskSummaryDTO>> getTasks(
             @RequestParam(required = false) Long projectId,
             @RequestParam(required = false) Status status,
             @RequestParam(required = false) Priority priority,
             @RequestParam(required = false) Long assignedToId,
+            @RequestParam(required = false) Long createdById,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate deadlineTo,
+            @RequestParam(required = false) String label,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
             @RequestParam Long userId) { // Accept userId as a request parameter
         
-        List<Task> tasks = taskService.getAllTasks(projectId, status, priority, assignedToId, 
-                                        page, size, sortBy, sortDir, userId);
-        return ResponseEntity.ok(tasks);
+        TaskFilter filter = TaskFilter.builder()
+                .projectId(projectId)
+                .status(status)
+                .priority(priority)
+                .assignedToId(assignedToId)
+                .createdById(createdById)
+                .deadlineFrom(deadlineFrom)
+                .deadlineTo(deadlineTo)
+                .label(label)
+                .build();
+        Slice<TaskSummaryDTO> tasks = taskService.getAllTasks(filter, page, size, sortBy, sortDir, after, userId);
+        return withCursor(tasks, sortBy, sortDir);
+    }
+
+    /**
+     * Search tasks by title, description and labels, best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskSummaryDTO>> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam Long userId) {
+        return ResponseEntity.ok(taskService.searchTasks(q, projectId, limit, userId));
     }
 
     /**
@@ -94,44 +125,54 @@ public class TaskController {
      * Get tasks by project ID
      */
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<Task>> getTasksByProject(@PathVariable Long projectId, @RequestParam Long userId) {
-        List<Task> tasks = taskService.getTasksByProject(projectId, userId);
+    public ResponseEntity<List<TaskSummaryDTO>> getTasksByProject(@PathVariable Long projectId, @RequestParam Long userId) {
+        List<TaskSummaryDTO> tasks = taskService.getTasksByProject(projectId, userId);
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Task counts by status and priority, and overdue tasks, for a project dashboard
+     */
+    @GetMapping("/project/{projectId}/stats")
+    public ResponseEntity<ProjectTaskStatsDTO> getProjectTaskStats(@PathVariable Long projectId, @RequestParam Long userId) {
+        return ResponseEntity.ok(taskService.getProjectTaskStats(projectId, userId));
+    }
+
     /**
      * Get tasks assigned to a specific user
      */
     @GetMapping("/my-tasks")
-    public ResponseEntity<List<Task>> getMyTasks(
+    public ResponseEntity<List<TaskSummaryDTO>> getMyTasks(
             @RequestParam Long userId,
             @RequestParam(required = false) Status status,
             @RequestParam(required = false) Priority priority,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir)
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after)
              { // Accept userId as a request parameter
             
-        List<Task> tasks = taskService.getTasksAssignedToUser(userId, status, priority, page, size, sortBy, sortDir);
-        return ResponseEntity.ok(tasks);
+        Slice<TaskSummaryDTO> tasks = taskService.getTasksAssignedToUser(userId, status, priority, page, size, sortBy, sortDir, after);
+        return withCursor(tasks, sortBy, sortDir);
     }
 
     /**
      * Get tasks created by the current user
      */
     @GetMapping("/created-by-me")
-    public ResponseEntity<List<Task>> getTasksCreatedByMe(
+    public ResponseEntity<List<TaskSummaryDTO>> getTasksCreatedByMe(
             @RequestParam(required = false) Status status,
             @RequestParam(required = false) Priority priority,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after,
             @RequestParam Long userId) {  // Accept userId as a request parameter
         
-        List<Task> tasks = taskService.getTasksCreatedByUser(userId, status, priority, page, size, sortBy, sortDir);
-        return ResponseEntity.ok(tasks);
+        Slice<TaskSummaryDTO> tasks = taskService.getTasksCreatedByUser(userId, status, priority, page, size, sortBy, sortDir, after);
+        return withCursor(tasks, sortBy, sortDir);
     }
 
     /**
@@ -233,4 +274,17 @@ public class TaskController {
         return ResponseEntity.ok(labels);
     }
 
+    /**
+     * Return a slice of tasks, with the cursor for the next slice in the X-Next-Cursor header.
+     * The header is omitted on the last slice.
+     */
+    private ResponseEntity<List<TaskSummaryDTO>> withCursor(Slice<TaskSummaryDTO> tasks, String sortBy, String sortDir) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String nextCursor = taskService.nextCursor(tasks, sortBy, sortDir);
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(tasks.getContent());
+    }
+
 }
@@ -2,9 +2,9 @@ package com.example.worksphere.controller;
 
 import java.io.IOException;
 import java.util.Collections;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,20 +14,23 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import com.example.worksphere.dto.SignUpDto;
+import com.example.worksphere.dto.UserSummaryDTO;
 import com.example.worksphere.entity.User;
 import com.example.worksphere.service.UserService;
-import java.nio.file.*;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserService userService;
-    private static final String UPLOAD_DIR = "uploads/"; // Store files in 'uploads/' folder at the project root
 
     public UserController(UserService userService) {
         this.userService = userService;
@@ -54,6 +57,8 @@ public class UserController {
             return new ResponseEntity<>("User registered successfully.", HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>("Invalid gender value.", HttpStatus.BAD_REQUEST);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
@@ -61,24 +66,38 @@ public class UserController {
 
     // LOGIN: Authenticate user
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody SignUpDto signUpDto) {
+    // The password check runs on the hashing pool; the request thread is released meanwhile
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody SignUpDto signUpDto) {
         try {
             // authenticate
-            User user = userService.loginUser(
+            return userService.loginUser(
                 signUpDto.getEmail(),
                 signUpDto.getPassword()
-            );
-            if (user != null) {
-                return ResponseEntity.ok(user);
-            } else {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Collections.singletonMap("message", "Invalid email or password"));
-            }
+            ).<ResponseEntity<?>>thenApply(user -> {
+                if (user != null) {
+                    // The body stays the user; the signed access token travels in the Authorization header
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + userService.issueAccessToken(user))
+                            .body(user);
+                } else {
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(Collections.singletonMap("message", "Invalid email or password"));
+                }
+            }).exceptionally(e -> unauthorized(unwrap(e).getMessage()));
+        } catch (ResponseStatusException e) {
+            throw e; // hashing pool full: 503 with Retry-After
         } catch (RuntimeException e) {
-            return new ResponseEntity<>(e.getMessage(), HttpStatus.UNAUTHORIZED);
+            return CompletableFuture.completedFuture(unauthorized(e.getMessage()));
         }
     }
 
+    // LOGOUT: Revoke the access token this request carries
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout() {
+        userService.logout();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         Optional<User> user = userService.getUserById(id);
@@ -109,7 +128,8 @@ public class UserController {
      * This endpoint first verifies the current password before allowing a change
      */
     @PutMapping("/{id}/password")
-    public ResponseEntity<String> updatePassword(@PathVariable Long id, @RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<String>> updatePassword(@PathVariable Long id,
+                                                                   @RequestBody Map<String, String> request) {
         Optional<User> userOptional = userService.getUserById(id);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
@@ -119,23 +139,24 @@ public class UserController {
             
             // Validate password
             if (newPassword == null || newPassword.length() < 6) {
-                return ResponseEntity.badRequest().body("Password must be at least 6 characters long");
-            }
-            
-            // Check if current password is correct
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-            if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Current password is incorrect");
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.badRequest().body("Password must be at least 6 characters long"));
             }
             
-            // Encrypt and update the new password
-            String hashedPassword = passwordEncoder.encode(newPassword);
-            user.setPassword(hashedPassword);
-            userService.saveUser(user);
-            
-            return ResponseEntity.ok("Password updated successfully");
+            // Check if current password is correct, then encrypt and update the new password
+            return userService.checkPassword(user, currentPassword).thenCompose(matches -> {
+                if (!matches) {
+                    return CompletableFuture.completedFuture(
+                            ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Current password is incorrect"));
+                }
+                // Tokens issued before the change are revoked; hand back one issued after it
+                return userService.changePassword(user, newPassword)
+                        .thenApply(v -> ResponseEntity.ok()
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + userService.issueAccessToken(user))
+                                .body("Password updated successfully"));
+            });
         } else {
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
     }
 
@@ -146,43 +167,24 @@ public class UserController {
         }
 
         try {
-            Optional<User> userOptional = userService.getUserById(id);
-            if (userOptional.isPresent()) {
-                User user = userOptional.get();
-
-                // Ensure upload directory exists
-                Path uploadPath = Paths.get(UPLOAD_DIR);
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-
-                String fileName = "user_" + id + ".jpg";
-                Path filePath = uploadPath.resolve(fileName);
-
-                // Save the file
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-                // Update User entity with relative path to the file
-                user.setProfilePicture("/uploads/" + fileName);
-                userService.saveUser(user);
-
-                return ResponseEntity.ok("/uploads/" + fileName);
-            } else {
+            if (userService.getUserById(id).isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            // Stored under its content hash; thumbnails follow in the background
+            User user = userService.updateProfilePicture(id, file);
+            return ResponseEntity.ok(user.getProfilePicture());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("File upload failed: " + e.getMessage());
         }
     }
 
-    @GetMapping
-    public ResponseEntity<?> getAllUsers() {
-        try {
-            return ResponseEntity.ok(userService.getAllUsers());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Collections.singletonMap("message", "Error retrieving users"));
-        }
+    /**
+     * Users whose name or email starts with q, for the invite and member pickers
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSummaryDTO>> searchUsers(@RequestParam String q,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userService.searchUsers(q, limit));
     }
 
     /**
@@ -190,7 +192,8 @@ public class UserController {
      * This endpoint allows users to change their email address after verifying their password
      */
     @PutMapping("/{id}/email")
-    public ResponseEntity<String> updateEmail(@PathVariable Long id, @RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<String>> updateEmail(@PathVariable Long id,
+                                                                @RequestBody Map<String, String> request) {
         Optional<User> userOptional = userService.getUserById(id);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
@@ -200,27 +203,25 @@ public class UserController {
             
             // Validate email format
             if (newEmail == null || !newEmail.matches("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")) {
-                return ResponseEntity.badRequest().body("Invalid email format");
-            }
-            
-            // Check if password is correct
-            BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-            if (!passwordEncoder.matches(password, user.getPassword())) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Current password is incorrect");
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid email format"));
             }
             
-            // Check if email is already in use
+            // Check if email is already in use before spending a hash on the password
             if (userService.isEmailTaken(newEmail) && !newEmail.equals(user.getEmail())) {
-                return ResponseEntity.badRequest().body("Email is already in use");
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email is already in use"));
             }
             
-            // Update email
-            user.setEmail(newEmail);
-            userService.saveUser(user);
-            
-            return ResponseEntity.ok("Email updated successfully");
+            // Check if password is correct, then update email
+            return userService.checkPassword(user, password).thenApply(matches -> {
+                if (!matches) {
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Current password is incorrect");
+                }
+                user.setEmail(newEmail);
+                userService.saveUser(user);
+                return ResponseEntity.ok("Email updated successfully");
+            });
         } else {
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
     }
 
@@ -276,4 +277,12 @@ public class UserController {
         boolean exists = userService.isEmailTaken(email);
         return ResponseEntity.ok(Collections.singletonMap("exists", exists));
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<?> unauthorized(String message) {
+        return new ResponseEntity<>(message, HttpStatus.UNAUTHORIZED);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
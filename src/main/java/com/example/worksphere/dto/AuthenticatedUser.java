@@ -0,0 +1,39 @@
+package com.example.worksphere.dto;
+
+import com.example.worksphere.entity.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * The caller as stated by a verified access token. Built from the token alone,
+ * so it reflects the user as of login, not the current database row.
+ * Its name is the user id, which is what STOMP user destinations are addressed by.
+ */
+public record AuthenticatedUser(Long id, User.Role role, String tokenId, long expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return id.toString();
+    }
+
+    /**
+     * The principal of the current request, if it carried a valid access token
+     */
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether userId is the caller proven by the current request's token
+     */
+    public static boolean isCurrent(Long userId) {
+        return userId != null && current().map(user -> user.id().equals(userId)).orElse(false);
+    }
+}
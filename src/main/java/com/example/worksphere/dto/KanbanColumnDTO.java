@@ -22,6 +22,11 @@ public class KanbanColumnDTO {
     private LocalDateTime createdAt;
     private List<KanbanTaskDTO> tasks;
 
+    // Used by query projections; tasks are filled in afterwards
+    public KanbanColumnDTO(Long id, Long boardId, String title, Integer position, LocalDateTime createdAt) {
+        this(id, boardId, title, position, createdAt, null);
+    }
+
     public static KanbanColumnDTO fromEntity(KanbanColumn column) {
         return KanbanColumnDTO.builder()
                 .id(column.getId())
@@ -0,0 +1,42 @@
+package com.example.worksphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single change to a board or task. Board changes are pushed to /topic/boards/{boardId},
+ * task status changes (which have no board) to /topic/projects/{projectId}.
+ * Carries only what changed so clients can patch their copy instead of re-fetching the board.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KanbanEvent {
+
+    public enum Type {
+        CARD_ADDED,         // payload: KanbanTaskDTO
+        CARD_MOVED,         // payload: KanbanTaskDTO, fromColumnId set
+        CARD_REMOVED,
+        COLUMN_ADDED,       // payload: KanbanColumnDTO
+        COLUMN_RENAMED,     // payload: new title
+        COLUMN_DELETED,
+        COLUMNS_REORDERED,  // payload: column ids in their new order
+        TASK_STATUS_CHANGED // payload: new Task.Status; project topic only
+    }
+
+    private Type type;
+    private Long projectId;
+    private Long boardId;
+    private Long columnId;
+    private Long fromColumnId;
+    private Long kanbanTaskId;
+    private Long taskId;
+    private Object payload;
+    private Long actorId;       // User who made the change, so their own client can skip the echo
+    private LocalDateTime occurredAt;
+}
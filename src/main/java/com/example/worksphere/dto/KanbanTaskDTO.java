@@ -26,7 +26,7 @@ public class KanbanTaskDTO {
     private String assigneeName;
     private Long assigneeId;
     private Integer columnNumber;
-    private Integer position;
+    private Long position;          // Sort key within the column, not an index
     private LocalDate deadline;
 
     public static KanbanTaskDTO fromEntity(KanbanTask kanbanTask) {
@@ -0,0 +1,30 @@
+package com.example.worksphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to a user's notifications, pushed to /topic/users/{userId}/notifications
+ * together with the user's unread count after the change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationEvent {
+
+    public enum Type {
+        CREATED,    // notification is set
+        READ,       // notificationId is set
+        ALL_READ,
+        REFRESH     // rows were written outside the service (database triggers); re-fetch the feed
+    }
+
+    private Type type;
+    private Long userId;
+    private NotificationDTO notification;
+    private Long notificationId;
+    private Long unreadCount;
+}
@@ -0,0 +1,59 @@
+package com.example.worksphere.dto;
+
+import com.example.worksphere.entity.Project;
+import com.example.worksphere.entity.ProjectMember;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * What a single user may do in a single project, resolved in one query.
+ * Role and status are null when the user has no membership row.
+ */
+@Getter
+@ToString
+public class ProjectAccess {
+    private final Long projectId;
+    private final Long ownerId;
+    private final Project.Visibility visibility;
+    private final ProjectMember.Role role;
+    private final ProjectMember.Status status;
+
+    public ProjectAccess(Long projectId, Long ownerId, Project.Visibility visibility,
+                         ProjectMember.Role role, ProjectMember.Status status) {
+        this.projectId = projectId;
+        this.ownerId = ownerId;
+        this.visibility = visibility;
+        this.role = role;
+        this.status = status;
+    }
+
+    public boolean isOwner(Long userId) {
+        return ownerId != null && ownerId.equals(userId);
+    }
+
+    /**
+     * Any membership row, whatever its status
+     */
+    public boolean hasMembership() {
+        return status != null;
+    }
+
+    public boolean isActiveMember() {
+        return status == ProjectMember.Status.ACTIVE;
+    }
+
+    public boolean isActiveManager() {
+        return isActiveMember() && role == ProjectMember.Role.PROJECT_MANAGER;
+    }
+
+    public boolean isPublic() {
+        return visibility == Project.Visibility.PUBLIC;
+    }
+
+    /**
+     * Who may see the project at all: its owner, active members, or anyone if it is public
+     */
+    public boolean canView(Long userId) {
+        return isOwner(userId) || isActiveMember() || isPublic();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.worksphere.dto;
+
+import com.example.worksphere.entity.Task.Priority;
+import com.example.worksphere.entity.Task.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Task counts for a project dashboard. Every status and priority is present, zero if unused.
+ * completedPercent is COMPLETED out of all tasks except CANCELED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskStatsDTO {
+    private Long projectId;
+    private long total;
+    private Map<Status, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private long overdue;
+    private int completedPercent;
+}
@@ -1,6 +1,7 @@
 
 package com.example.worksphere.dto;
 
+import com.example.worksphere.entity.TaskActivityLog;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,6 +27,22 @@ public class TaskActivityDTO {
     private String actionIcon;
     private String actionColor;
     
+    /**
+     * Used by the activity feed queries, which join the task title in
+     */
+    public TaskActivityDTO(Long id, Long taskId, String taskTitle, Long userId, String userName,
+                           TaskActivityLog.ActivityAction action, String changedData, LocalDateTime createdAt) {
+        this.id = id;
+        this.taskId = taskId;
+        this.taskTitle = taskTitle;
+        this.userId = userId;
+        this.userName = userName;
+        this.action = action.name();
+        this.changedData = changedData;
+        this.createdAt = createdAt;
+        setDisplayProperties();
+    }
+    
     // Helper method to set icon and color based on action type
     public void setDisplayProperties() {
         switch(action) {
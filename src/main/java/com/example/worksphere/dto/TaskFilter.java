@@ -0,0 +1,28 @@
+package com.example.worksphere.dto;
+
+import com.example.worksphere.entity.Task.Priority;
+import com.example.worksphere.entity.Task.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for task list queries. Null fields are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFilter {
+    private Long projectId;
+    private Status status;
+    private Priority priority;
+    private Long assignedToId;
+    private Long createdById;
+    private LocalDate deadlineFrom;
+    private LocalDate deadlineTo;
+    private String label;
+}
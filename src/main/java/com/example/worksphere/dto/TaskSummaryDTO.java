@@ -0,0 +1,73 @@
+package com.example.worksphere.dto;
+
+import com.example.worksphere.entity.Task.Priority;
+import com.example.worksphere.entity.Task.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact task row for list endpoints, selected column by column so no Task,
+ * Project or User entity is loaded. Project and user references keep the
+ * {@code project.name} / {@code assignedTo.firstName} shape the task lists already read.
+ */
+@Data
+@NoArgsConstructor
+public class TaskSummaryDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private Status status;
+    private Priority priority;
+    private LocalDate deadline;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private ProjectRef project;
+    private UserRef assignedTo;
+    private UserRef createdBy;
+    private List<LabelDTO> labels = new ArrayList<>();
+
+    /**
+     * Constructor expression used by the summary queries in TaskRepositoryImpl
+     */
+    public TaskSummaryDTO(Long id, String title, String description, Status status, Priority priority,
+                          LocalDate deadline, LocalDateTime createdAt, LocalDateTime updatedAt,
+                          Long projectId, String projectName,
+                          Long assignedToId, String assignedToFirstName, String assignedToLastName,
+                          Long createdById, String createdByFirstName, String createdByLastName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.deadline = deadline;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.project = new ProjectRef(projectId, projectName);
+        this.assignedTo = assignedToId != null
+                ? new UserRef(assignedToId, assignedToFirstName, assignedToLastName) : null;
+        this.createdBy = new UserRef(createdById, createdByFirstName, createdByLastName);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProjectRef {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserRef {
+        private Long id;
+        private String firstName;
+        private String lastName;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.worksphere.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thumbnail sizes and the URLs they are served from, shared by entities and ThumbnailService.
+ *
+ * Profile picture thumbnails are public and named after the picture's SHA-256. Attachment
+ * previews are only served through the access-checked attachment endpoint.
+ */
+public final class Thumbnails {
+
+    public static final int[] SIZES = {32, 64, 256};
+    public static final int PREVIEW_SIZE = 256;
+    public static final String AVATAR_URL_PREFIX = "/uploads/thumbnails/";
+
+    private Thumbnails() {
+    }
+
+    /**
+     * URL of one thumbnail of the profile picture with this hash
+     */
+    public static String avatarUrl(String hash, int size) {
+        return AVATAR_URL_PREFIX + hash + "-" + size + ".png";
+    }
+
+    /**
+     * URLs of every thumbnail size of a profile picture, keyed by edge length
+     */
+    public static Map<Integer, String> avatarUrls(String hash) {
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (int size : SIZES) {
+            urls.put(size, avatarUrl(hash, size));
+        }
+        return urls;
+    }
+
+    /**
+     * Preview of an image attachment; takes the same userId parameter as the download
+     */
+    public static String attachmentUrl(Long attachmentId) {
+        return "/api/attachments/" + attachmentId + "/thumbnail";
+    }
+
+    public static boolean isSupportedSize(int size) {
+        for (int supported : SIZES) {
+            if (supported == size) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
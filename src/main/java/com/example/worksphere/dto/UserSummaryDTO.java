@@ -0,0 +1,25 @@
+package com.example.worksphere.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The few user fields a picker needs; never carries credentials or settings
+ */
+@Data
+@NoArgsConstructor
+public class UserSummaryDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String name;
+    private String email;
+
+    public UserSummaryDTO(Long id, String firstName, String lastName, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.name = firstName + ' ' + lastName;
+        this.email = email;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.worksphere.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored attachment body, shared by every attachment with the same content.
+ * refCount is the number of task_attachments rows pointing at it.
+ */
+@Entity
+@Table(name = "attachment_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentBlob {
+
+    // Hex SHA-256 of the content
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -4,25 +4,37 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "kanban_tasks")
+@NamedEntityGraph(name = KanbanTask.CARD_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode("kanbanColumn"),
+        @NamedAttributeNode(value = "task", subgraph = "task")
+    },
+    subgraphs = @NamedSubgraph(name = "task", attributeNodes = @NamedAttributeNode("assignedTo")))
+@Table(name = "kanban_tasks", indexes = {
+    @Index(name = "idx_kanban_task_column_position", columnList = "column_id, position")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class KanbanTask {
 
+    // What a card DTO reads: its column, the task and the assignee
+    public static final String CARD_GRAPH = "KanbanTask.card";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "column_id", nullable = false)
     private KanbanColumn kanbanColumn;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
+    // Sparse sort key within the column; cards are spaced apart so a move rewrites only itself
     @Column(nullable = false)
-    private Integer position;
+    private Long position;
 }
\ No newline at end of file
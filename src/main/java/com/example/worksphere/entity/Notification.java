@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notification_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,44 @@
+package com.example.worksphere.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Read notifications moved out of the live table by the archival job.
+ * Rows keep their original id; there are no foreign keys so the archive outlives deleted projects.
+ */
+@Entity
+@Table(name = "notifications_archive", indexes = {
+    @Index(name = "idx_notification_archive_user_created", columnList = "user_id, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "is_read", nullable = false)
+    private Boolean isRead;
+
+    @Column(name = "invite_id")
+    private Long inviteId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -2,21 +2,31 @@ package com.example.worksphere.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.example.worksphere.dto.ProjectDTO;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projects")
+@NamedEntityGraph(name = Project.WITH_OWNER_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
 @Table(name = "projects")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Project {
 
+    // Project JSON embeds the owner, so lists that are serialized load it up front
+    public static final String WITH_OWNER_GRAPH = "Project.withOwner";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,7 +37,7 @@ public class Project {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner; // Reference to the User entity
 
@@ -2,10 +2,17 @@ package com.example.worksphere.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project-members")
+@NamedEntityGraph(name = ProjectMember.PROJECT_GRAPH,
+    attributeNodes = @NamedAttributeNode(value = "project", subgraph = "project"),
+    subgraphs = @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("owner")))
 @Table(name = "project_members", uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "user_id"}))
 @Getter
 @Setter
@@ -14,6 +21,9 @@ import java.time.LocalDateTime;
 @Builder
 public class ProjectMember {
 
+    // Membership lists that are turned into project lists, owner included
+    public static final String PROJECT_GRAPH = "ProjectMember.project";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,48 @@
+package com.example.worksphere.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Number of tasks in a project with a given status and priority, kept in step by
+ * TaskService in the same transaction as the task change. Per-status and per-priority
+ * totals are sums over this grid, so a project's counts are at most 24 rows.
+ */
+@Entity
+@Table(name = "project_task_counts")
+@IdClass(ProjectTaskCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskCount {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", columnDefinition = "ENUM('not_started', 'pending', 'in_progress', 'completed', 'on_hold', 'canceled')")
+    private Task.Status status;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", columnDefinition = "ENUM('low', 'medium', 'high', 'critical')")
+    private Task.Priority priority;
+
+    @Column(name = "task_count", nullable = false)
+    private Integer taskCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long projectId;
+        private Task.Status status;
+        private Task.Priority priority;
+    }
+}
@@ -9,32 +9,48 @@ import java.util.HashSet;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
+@NamedEntityGraph(name = Task.DETAIL_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "project", subgraph = "project"),
+        @NamedAttributeNode("assignedTo"),
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("labels")
+    },
+    subgraphs = @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("owner")))
 @Table(name = "tasks", indexes = {
     @Index(name = "idx_task_title", columnList = "title"),
     @Index(name = "idx_task_priority", columnList = "priority"),
     @Index(name = "idx_task_status", columnList = "status"),
     @Index(name = "idx_task_assigned_to", columnList = "assigned_to"),
-    @Index(name = "idx_task_created_by", columnList = "created_by")
+    @Index(name = "idx_task_created_by", columnList = "created_by"),
+    @Index(name = "idx_task_project_deadline", columnList = "project_id, deadline"),
+    @Index(name = "idx_task_assigned_deadline", columnList = "assigned_to, deadline")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Task {
+
+    // Everything a single task is rendered with: project and owner, people and labels
+    public static final String DETAIL_GRAPH = "Task.detail";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project; // Reference to the Project entity
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to", nullable = true)
     private User assignedTo; // Task can be unassigned initially
     
@@ -57,7 +73,7 @@ public class Task {
     @Column(name = "deadline")
     private LocalDate deadline;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
     
@@ -67,6 +83,11 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Label names for the ft_task_search full-text index; TaskService keeps it in step with labels
+    @JsonIgnore
+    @Column(name = "search_labels", columnDefinition = "TEXT")
+    private String searchLabels;
+    
     // Apply JsonManagedReference to break the circular reference
     @JsonManagedReference
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -9,7 +9,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "task_activity_log")
+@Table(name = "task_activity_log", indexes = {
+    @Index(name = "idx_task_activity_task_created", columnList = "task_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,6 +1,8 @@
 package com.example.worksphere.entity;
 
+import com.example.worksphere.dto.Thumbnails;
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,6 +32,16 @@ public class TaskAttachment {
     @Column(name = "file_path", nullable = false)
     private String filePath;
     
+    @Column(name = "file_size")
+    private Long fileSize;
+    
+    @Column(name = "content_type", length = 127)
+    private String contentType;
+    
+    // Hex SHA-256 of the stored bytes
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
@@ -41,4 +53,16 @@ public class TaskAttachment {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+    
+    /**
+     * Preview image for image attachments, served with the same access check as the download;
+     * generated in the background, so it may briefly 404
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getThumbnailUrl() {
+        if (id == null || contentHash == null || contentType == null || !contentType.startsWith("image/")) {
+            return null;
+        }
+        return Thumbnails.attachmentUrl(id);
+    }
 }
\ No newline at end of file
@@ -2,18 +2,32 @@ package com.example.worksphere.entity;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.example.worksphere.dto.Thumbnails;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
+    // Profile pictures uploaded since thumbnails exist are named after their SHA-256
+    private static final Pattern HASHED_PICTURE = Pattern.compile("/uploads/avatars/([0-9a-f]{64})\\.\\w+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,6 +41,8 @@ public class User {
     @Column(name = "email", nullable = false, unique = true, length = 100, columnDefinition = "VARCHAR(100) COLLATE utf8mb4_unicode_ci")
     private String email;
 
+    // Never serialized: users are returned from login and embedded in every task response
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "password_hash", nullable = false, length = 255)
     private String password;
 
@@ -82,6 +98,18 @@ public class User {
         return this.bio;
     }
 
+    /**
+     * Thumbnail URLs of the profile picture by edge size, or null for pictures stored before thumbnails
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<Integer, String> getProfilePictureThumbnails() {
+        if (profilePicture == null) {
+            return null;
+        }
+        Matcher matcher = HASHED_PICTURE.matcher(profilePicture);
+        return matcher.matches() ? Thumbnails.avatarUrls(matcher.group(1)) : null;
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -89,7 +117,6 @@ public class User {
                 ", firstName='" + firstName + '\'' +
                 ", lastName='" + lastName + '\'' +
                 ", email='" + email + '\'' +
-                ", password='" + password + '\'' +  // Avoid printing passwords in production; this is for debugging purposes
                 ", profilePicture='" + profilePicture + '\'' +
                 ", dob=" + dob +
                 ", gender=" + gender +
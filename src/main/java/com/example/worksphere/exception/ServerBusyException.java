@@ -0,0 +1,25 @@
+package com.example.worksphere.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 503 with a Retry-After header, for work shed because a bounded pool is full
+ */
+public class ServerBusyException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public ServerBusyException(String reason, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
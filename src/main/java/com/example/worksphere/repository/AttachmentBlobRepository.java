@@ -0,0 +1,55 @@
+package com.example.worksphere.repository;
+
+import com.example.worksphere.entity.AttachmentBlob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    /**
+     * Take a reference to a blob, creating its row on first use.
+     * Blocks while another transaction holds the row, e.g. one releasing its last reference.
+     * The table is declared so Hibernate does not treat this native write as touching every
+     * cached entity and clear the whole second-level cache.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attachment_blobs"))
+    @Query(value = "INSERT INTO attachment_blobs (content_hash, size, ref_count, created_at) " +
+                   "VALUES (:hash, :size, 1, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    void acquire(@Param("hash") String hash, @Param("size") long size);
+
+    /**
+     * @return 0 if the blob is not tracked
+     */
+    @Modifying
+    @Query("UPDATE AttachmentBlob b SET b.refCount = b.refCount - 1 WHERE b.contentHash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash);
+
+    /**
+     * @return 1 if the blob had no references left and its row was removed
+     */
+    @Modifying
+    @Query("DELETE FROM AttachmentBlob b WHERE b.contentHash = :hash AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    /**
+     * SELECT ... FOR UPDATE; when the row is absent this still locks its key range,
+     * so an acquire of the same hash waits for the caller's transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AttachmentBlob> findLockedByContentHash(String contentHash);
+}
@@ -0,0 +1,58 @@
+package com.example.worksphere.repository;
+
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Cursor for newest-first feeds ordered by (created_at DESC, id DESC), such as
+ * notifications and project activity.
+ *
+ * The token holds the createdAt and id of the last row returned; the next page is read with
+ * {@code WHERE (created_at, id) < (:createdAt, :id)}. Unlike TaskKeyset the order is fixed,
+ * so nothing about the sort is encoded.
+ */
+public final class FeedCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private FeedCursor() {
+    }
+
+    /**
+     * Position just past the last row of a page
+     */
+    public record Position(LocalDateTime createdAt, Long id) {
+    }
+
+    /**
+     * Cursor continuing after the last row of a page, or null on the last page
+     */
+    public static <T> String next(Slice<T> page, Function<T, LocalDateTime> createdAt, Function<T, Long> id) {
+        if (!page.hasNext() || !page.hasContent()) {
+            return null;
+        }
+        T last = page.getContent().get(page.getNumberOfElements() - 1);
+        String raw = createdAt.apply(last) + SEPARATOR + id.apply(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Position decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+            if (parts.length == 2) {
+                return new Position(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        throw new IllegalArgumentException("Malformed cursor");
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.worksphere.repository;
 
 import com.example.worksphere.entity.KanbanBoard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,7 +18,15 @@ public interface KanbanBoardRepository extends JpaRepository<KanbanBoard, Long>
     /**
      * Find all kanban boards for a project
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<KanbanBoard> findByProjectId(Long projectId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<KanbanBoard> findFirstByProjectId(Long projectId); // for simplicity
 
+    /**
+     * Project a board belongs to, without loading the board
+     */
+    @Query("SELECT b.project.id FROM KanbanBoard b WHERE b.id = :boardId")
+    Optional<Long> findProjectIdById(@Param("boardId") Long boardId);
+
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.example.worksphere.repository;
 
+import com.example.worksphere.dto.KanbanColumnDTO;
 import com.example.worksphere.entity.KanbanColumn;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,4 +22,11 @@ public interface KanbanColumnRepository extends JpaRepository<KanbanColumn, Long
     
     List<KanbanColumn> findByBoardIdAndPositionGreaterThan(Long kanbanBoardId, Integer position);
     
+    /**
+     * Columns of a board without their tasks or board graph, ordered by position
+     */
+    @Query("SELECT new com.example.worksphere.dto.KanbanColumnDTO(c.id, c.board.id, c.title, c.position, c.createdAt) " +
+           "FROM KanbanColumn c WHERE c.board.id = :boardId ORDER BY c.position")
+    List<KanbanColumnDTO> findColumnSnapshotByBoardId(@Param("boardId") Long boardId);
+    
 }
\ No newline at end of file
@@ -1,26 +1,57 @@
 package com.example.worksphere.repository;
 
+import com.example.worksphere.dto.KanbanTaskDTO;
 import com.example.worksphere.entity.KanbanTask;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface KanbanTaskRepository extends JpaRepository<KanbanTask, Long> {
     
-    List<KanbanTask> findByKanbanColumnIdOrderByPosition(Long columnId);
+    List<KanbanTask> findByKanbanColumnIdOrderByPositionAscIdAsc(Long columnId);
     
-    List<KanbanTask> findByKanbanColumnIdAndPositionGreaterThan(Long columnId, Integer position);
+    /**
+     * Cards of a column with their task and assignee, for building card DTOs
+     */
+    @EntityGraph(KanbanTask.CARD_GRAPH)
+    List<KanbanTask> findCardsByKanbanColumnIdOrderByPositionAscIdAsc(Long columnId);
     
-    List<KanbanTask> findByKanbanColumnIdAndPositionGreaterThanEqual(Long columnId, Integer position);
-    
-    List<KanbanTask> findByKanbanColumnIdAndPositionBetween(Long columnId, Integer startPosition, Integer endPosition);
+    @EntityGraph(KanbanTask.CARD_GRAPH)
+    Optional<KanbanTask> findCardById(Long id);
     
     Long countByKanbanColumnId(Long columnId);
     
+    @Query("SELECT MAX(kt.position) FROM KanbanTask kt WHERE kt.kanbanColumn.id = :columnId")
+    Optional<Long> findMaxPosition(@Param("columnId") Long columnId);
+    
+    /**
+     * Sort keys of the cards at [offset, offset + limit) in a column, skipping one card (null skips none)
+     */
+    @Query(value = "SELECT CAST(position AS SIGNED) FROM kanban_tasks " +
+                   "WHERE column_id = :columnId AND (:excludeId IS NULL OR id <> :excludeId) " +
+                   "ORDER BY position, id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findPositionsInColumn(@Param("columnId") Long columnId,
+                                     @Param("excludeId") Long excludeId,
+                                     @Param("offset") int offset,
+                                     @Param("limit") int limit);
+    
     @Query("SELECT CASE WHEN COUNT(kt) > 0 THEN true ELSE false END FROM KanbanTask kt WHERE kt.task.id = :taskId AND kt.kanbanColumn.board.id = :boardId")
     boolean existsByTaskIdAndKanbanColumnBoardId(@Param("taskId") Long taskId, @Param("boardId") Long boardId);
+    
+    /**
+     * Every card on a board with its task and assignee, ordered by column then position, in one query
+     */
+    @Query("SELECT new com.example.worksphere.dto.KanbanTaskDTO(" +
+           "kt.id, c.board.id, c.id, t.id, t.title, t.description, t.status, t.priority, " +
+           "CONCAT(a.firstName, ' ', a.lastName), a.id, c.position, kt.position, t.deadline) " +
+           "FROM KanbanTask kt JOIN kt.kanbanColumn c JOIN kt.task t LEFT JOIN t.assignedTo a " +
+           "WHERE c.board.id = :boardId " +
+           "ORDER BY c.position, kt.position, kt.id")
+    List<KanbanTaskDTO> findTaskSnapshotByBoardId(@Param("boardId") Long boardId);
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.example.worksphere.repository;
 
 import com.example.worksphere.entity.Notification;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -17,11 +22,29 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     
+    /**
+     * First page of a user's feed, newest first
+     */
+    List<Notification> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+    
+    /**
+     * Next page of a user's feed: everything strictly older than (createdAt, id)
+     */
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFeedPageBefore(@Param("userId") Long userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+    
     /**
      * Count unread notifications for a specific user
      */
     long countByUserIdAndIsReadFalse(Long userId);
     
+    boolean existsByIdAndUserId(Long id, Long userId);
+    
     /**
      * Update all unread notifications for a user to read status
      */
@@ -30,9 +53,30 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     int markAllAsReadForUser(@Param("userId") Long userId);
     
     /**
-     * Mark a specific notification as read
+     * Mark a specific unread notification as read
      */
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.userId = :userId")
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.userId = :userId AND n.isRead = false")
     int markAsRead(@Param("notificationId") Long notificationId, @Param("userId") Long userId);
+    
+    /**
+     * Ids of a batch of read notifications created before the cutoff
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = true AND n.createdAt < :cutoff ORDER BY n.id")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Copy notifications into notifications_archive. Declares the table it writes, so the
+     * native insert does not evict every second-level cache region.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notifications_archive"))
+    @Query(value = "INSERT INTO notifications_archive (id, user_id, message, is_read, invite_id, project_id, created_at, archived_at) " +
+                   "SELECT id, user_id, message, is_read, invite_id, project_id, created_at, CURRENT_TIMESTAMP " +
+                   "FROM notifications WHERE id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
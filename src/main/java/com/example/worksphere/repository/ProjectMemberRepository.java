@@ -3,8 +3,12 @@ package com.example.worksphere.repository;
 import com.example.worksphere.entity.Project;
 import com.example.worksphere.entity.ProjectMember;
 import com.example.worksphere.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,6 +19,8 @@ import java.util.Optional;
 public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Long> {
     // Basic query methods
     List<ProjectMember> findByProjectId(Long projectId);
+    // Looked up on most member and invite actions; answered from the query cache until project_members changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ProjectMember> findByProjectIdAndUserId(Long projectId, Long userId);
     
     // Existence checks
@@ -31,7 +37,9 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Lo
     long countByProjectIdAndStatus(Long projectId, ProjectMember.Status status);
     
     // Finding members by user
+    @EntityGraph(ProjectMember.PROJECT_GRAPH)
     List<ProjectMember> findByUserIdAndStatus(Long userId, ProjectMember.Status status);
+    @EntityGraph(ProjectMember.PROJECT_GRAPH)
     List<ProjectMember> findByUserIdAndRoleAndStatus(Long userId, ProjectMember.Role role, ProjectMember.Status status);
     List<ProjectMember> findByUserId(Long userId);
     
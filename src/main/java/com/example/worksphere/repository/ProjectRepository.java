@@ -1,13 +1,30 @@
 package com.example.worksphere.repository;
 
+import com.example.worksphere.dto.ProjectAccess;
 import com.example.worksphere.entity.Project;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+    @Override
+    @EntityGraph(Project.WITH_OWNER_GRAPH)
+    List<Project> findAll();
+
+    @EntityGraph(Project.WITH_OWNER_GRAPH)
     List<Project> findByOwnerId(Long ownerId); // Fetch projects by user ID
+    @EntityGraph(Project.WITH_OWNER_GRAPH)
     List<Project> findByOwnerIdAndVisibility(Long ownerId, Project.Visibility visibility);
+
+    // Owner, visibility and the user's membership (if any) in a single round trip
+    @Query("SELECT new com.example.worksphere.dto.ProjectAccess(p.id, p.owner.id, p.visibility, pm.role, pm.status) " +
+           "FROM Project p LEFT JOIN ProjectMember pm ON pm.project = p AND pm.user.id = :userId " +
+           "WHERE p.id = :projectId")
+    Optional<ProjectAccess> findAccess(@Param("projectId") Long projectId, @Param("userId") Long userId);
 }
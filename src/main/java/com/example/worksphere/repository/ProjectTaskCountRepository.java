@@ -0,0 +1,46 @@
+package com.example.worksphere.repository;
+
+import com.example.worksphere.entity.ProjectTaskCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProjectTaskCountRepository extends JpaRepository<ProjectTaskCount, ProjectTaskCount.Key> {
+
+    /**
+     * Add delta to one cell of a project's counts, creating it on first use.
+     * Runs in the caller's transaction, so the count commits or rolls back with the task change.
+     * Declares its table so the native write only invalidates that, not the whole second-level cache.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_task_counts"))
+    @Query(value = "INSERT INTO project_task_counts (project_id, status, priority, task_count) " +
+                   "VALUES (:projectId, :status, :priority, :delta) " +
+                   "ON DUPLICATE KEY UPDATE task_count = task_count + :delta", nativeQuery = true)
+    void adjust(@Param("projectId") Long projectId, @Param("status") String status,
+                @Param("priority") String priority, @Param("delta") int delta);
+
+    @Modifying
+    @Query("DELETE FROM ProjectTaskCount c")
+    int deleteAllCounts();
+
+    /**
+     * Recount every project from tasks; the same statement backfills workdphere_db.sql
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_task_counts"))
+    @Query(value = "INSERT INTO project_task_counts (project_id, status, priority, task_count) " +
+                   "SELECT project_id, status, priority, COUNT(*) FROM tasks GROUP BY project_id, status, priority",
+           nativeQuery = true)
+    int insertCountsFromTasks();
+
+    List<ProjectTaskCount> findByProjectId(Long projectId);
+}
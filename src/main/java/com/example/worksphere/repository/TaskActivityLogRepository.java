@@ -1,22 +1,40 @@
 package com.example.worksphere.repository;
 
+import com.example.worksphere.dto.TaskActivityDTO;
 import com.example.worksphere.entity.TaskActivityLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TaskActivityLogRepository extends JpaRepository<TaskActivityLog, Long> {
     
-    List<TaskActivityLog> findByTaskIdOrderByCreatedAtDesc(Long taskId);
+    String FEED_ROW = "SELECT new com.example.worksphere.dto.TaskActivityDTO(" +
+            "tal.id, tal.taskId, t.title, tal.userId, tal.userName, tal.action, tal.changedData, tal.createdAt) " +
+            "FROM TaskActivityLog tal JOIN tal.task t ";
     
-    @Query("SELECT tal FROM TaskActivityLog tal WHERE tal.taskId IN :taskIds ORDER BY tal.createdAt DESC")
-    List<TaskActivityLog> findByTaskIdsOrderByCreatedAtDesc(@Param("taskIds") List<Long> taskIds);
+    @Query(FEED_ROW + "WHERE tal.taskId = :taskId ORDER BY tal.createdAt DESC, tal.id DESC")
+    List<TaskActivityDTO> findTaskFeed(@Param("taskId") Long taskId);
     
-    List<TaskActivityLog> findByUserIdOrderByCreatedAtDesc(Long userId);
+    @Query(FEED_ROW + "WHERE tal.userId = :userId ORDER BY tal.createdAt DESC, tal.id DESC")
+    List<TaskActivityDTO> findUserFeed(@Param("userId") Long userId);
+    
+    @Query(FEED_ROW + "WHERE t.project.id = :projectId ORDER BY tal.createdAt DESC, tal.id DESC")
+    List<TaskActivityDTO> findProjectFeed(@Param("projectId") Long projectId, Pageable pageable);
+    
+    // Keyset continuation: rows strictly older than (createdAt, id), same order as above
+    @Query(FEED_ROW + "WHERE t.project.id = :projectId " +
+           "AND (tal.createdAt < :createdAt OR (tal.createdAt = :createdAt AND tal.id < :id)) " +
+           "ORDER BY tal.createdAt DESC, tal.id DESC")
+    List<TaskActivityDTO> findProjectFeedBefore(@Param("projectId") Long projectId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
     
     @Query("SELECT tal FROM TaskActivityLog tal WHERE tal.taskId = :taskId AND tal.action = :action ORDER BY tal.createdAt DESC")
     List<TaskActivityLog> findByTaskIdAndActionOrderByCreatedAtDesc(@Param("taskId") Long taskId, @Param("action") TaskActivityLog.ActivityAction action);
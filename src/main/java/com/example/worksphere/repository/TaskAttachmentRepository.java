@@ -22,6 +22,14 @@ public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment,
      */
     List<TaskAttachment> findByTaskId(Long taskId);
     
+    /**
+     * Find all attachments on any task of a project.
+     * 
+     * @param projectId the project ID
+     * @return list of task attachments
+     */
+    List<TaskAttachment> findByTaskProjectId(Long projectId);
+    
     /**
      * Find all attachments uploaded by a specific user.
      * 
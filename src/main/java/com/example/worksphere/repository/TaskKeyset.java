@@ -0,0 +1,172 @@
+package com.example.worksphere.repository;
+
+import com.example.worksphere.dto.TaskSummaryDTO;
+import com.example.worksphere.entity.Task;
+import com.example.worksphere.entity.Task.Priority;
+import com.example.worksphere.entity.Task.Status;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pagination for task lists.
+ *
+ * A cursor is an opaque token holding the sort field, direction, the sort key of
+ * the last row returned and its id. The next page is read with
+ * {@code WHERE (key, id) > (lastKey, lastId)} instead of an OFFSET, so deep pages
+ * cost the same as the first one.
+ *
+ * The predicates follow MySQL ordering rules: NULL sorts lowest, and ENUM columns
+ * sort by declaration order, which matches the Java enum order of Status and Priority.
+ */
+public final class TaskKeyset {
+
+    private static final Map<String, Class<?>> SORT_FIELDS = Map.of(
+            "id", Long.class,
+            "title", String.class,
+            "description", String.class,
+            "status", Status.class,
+            "priority", Priority.class,
+            "deadline", LocalDate.class,
+            "createdAt", LocalDateTime.class,
+            "updatedAt", LocalDateTime.class);
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_KEY = "n";
+    private static final String VALUE_KEY = "v";
+
+    private TaskKeyset() {
+    }
+
+    /**
+     * Whether cursors can be issued for this sort field
+     */
+    public static boolean supports(String sortBy) {
+        return SORT_FIELDS.containsKey(sortBy);
+    }
+
+    /**
+     * Build the cursor pointing just past the given task
+     */
+    public static String encode(TaskSummaryDTO last, String sortBy, boolean desc) {
+        Object key = sortKey(last, sortBy);
+        String raw = String.join(SEPARATOR,
+                sortBy,
+                desc ? "d" : "a",
+                String.valueOf(last.getId()),
+                key == null ? NULL_KEY : VALUE_KEY + (key instanceof Enum<?> e ? e.name() : key.toString()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Restrict a query to the rows that come after the cursor.
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort
+     */
+    public static Specification<Task> after(String token, String sortBy, boolean desc) {
+        String[] parts = decode(token);
+        if (!parts[0].equals(sortBy) || !parts[1].equals(desc ? "d" : "a")) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+
+        Long lastId;
+        Object lastKey;
+        try {
+            lastId = Long.valueOf(parts[2]);
+            lastKey = parts[3].equals(NULL_KEY) ? null : parseKey(sortBy, parts[3].substring(VALUE_KEY.length()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+
+        return (root, query, cb) -> {
+            Predicate idBeyond = beyond(cb, root.get("id"), lastId, desc);
+            if (sortBy.equals("id")) {
+                return idBeyond;
+            }
+
+            Path<Object> key = root.get(sortBy);
+            if (lastKey == null) {
+                Predicate sameKey = cb.and(cb.isNull(key), idBeyond);
+                // NULLs come first ascending, so every non-null key is still ahead
+                return desc ? sameKey : cb.or(sameKey, cb.isNotNull(key));
+            }
+
+            Predicate keyBeyond = lastKey instanceof Enum<?> e
+                    ? enumBeyond(cb, key, e, desc)
+                    : beyond(cb, key, (Comparable<?>) lastKey, desc);
+            Predicate sameKey = cb.and(cb.equal(key, lastKey), idBeyond);
+            // NULLs come last descending, so they are still ahead of any value
+            return desc ? cb.or(keyBeyond, sameKey, cb.isNull(key)) : cb.or(keyBeyond, sameKey);
+        };
+    }
+
+    private static String[] decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || !supports(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return parts;
+    }
+
+    private static Object sortKey(TaskSummaryDTO task, String sortBy) {
+        return switch (sortBy) {
+            case "id" -> task.getId();
+            case "title" -> task.getTitle();
+            case "description" -> task.getDescription();
+            case "status" -> task.getStatus();
+            case "priority" -> task.getPriority();
+            case "deadline" -> task.getDeadline();
+            case "createdAt" -> task.getCreatedAt();
+            case "updatedAt" -> task.getUpdatedAt();
+            default -> throw new IllegalArgumentException("Cannot page by cursor on field: " + sortBy);
+        };
+    }
+
+    private static Object parseKey(String sortBy, String value) {
+        Class<?> type = SORT_FIELDS.get(sortBy);
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == Status.class) {
+            return Status.valueOf(value);
+        } else if (type == Priority.class) {
+            return Priority.valueOf(value);
+        } else if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        return value;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression path, Comparable value, boolean desc) {
+        return desc ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+    }
+
+    /**
+     * Compare enums by declaration order rather than by name
+     */
+    private static Predicate enumBeyond(CriteriaBuilder cb, Path<Object> path, Enum<?> value, boolean desc) {
+        List<Object> ahead = Arrays.stream(value.getDeclaringClass().getEnumConstants())
+                .filter(constant -> desc ? constant.ordinal() < value.ordinal() : constant.ordinal() > value.ordinal())
+                .<Object>map(constant -> constant)
+                .toList();
+        return ahead.isEmpty() ? cb.disjunction() : path.in(ahead);
+    }
+}
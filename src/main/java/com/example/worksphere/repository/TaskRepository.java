@@ -1,51 +1,54 @@
 package com.example.worksphere.repository;
 
 import com.example.worksphere.entity.Task;
-import com.example.worksphere.entity.Task.Status;
-import com.example.worksphere.entity.Task.Priority;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
     // Find by project
     List<Task> findByProjectId(Long projectId);
-    Page<Task> findByProjectId(Long projectId, Pageable pageable);
-    
-    // Find by project with filters
-    Page<Task> findByProjectIdAndStatus(Long projectId, Status status, Pageable pageable);
-    Page<Task> findByProjectIdAndPriority(Long projectId, Priority priority, Pageable pageable);
-    Page<Task> findByProjectIdAndAssignedToId(Long projectId, Long assignedToId, Pageable pageable);
-    Page<Task> findByProjectIdAndStatusAndPriority(Long projectId, Status status, Priority priority, Pageable pageable);
-    Page<Task> findByProjectIdAndStatusAndAssignedToId(Long projectId, Status status, Long assignedToId, Pageable pageable);
-    Page<Task> findByProjectIdAndPriorityAndAssignedToId(Long projectId, Priority priority, Long assignedToId, Pageable pageable);
-    Page<Task> findByProjectIdAndStatusAndPriorityAndAssignedToId(Long projectId, Status status, Priority priority, Long assignedToId, Pageable pageable);
-    
-    // Find by multiple projects
-    Page<Task> findByProjectIdIn(List<Long> projectIds, Pageable pageable);
-    
-    // Find by multiple projects with filters
-    Page<Task> findByProjectIdInAndStatus(List<Long> projectIds, Status status, Pageable pageable);
-    Page<Task> findByProjectIdInAndPriority(List<Long> projectIds, Priority priority, Pageable pageable);
-    Page<Task> findByProjectIdInAndAssignedToId(List<Long> projectIds, Long assignedToId, Pageable pageable);
-    Page<Task> findByProjectIdInAndStatusAndPriority(List<Long> projectIds, Status status, Priority priority, Pageable pageable);
-    Page<Task> findByProjectIdInAndStatusAndAssignedToId(List<Long> projectIds, Status status, Long assignedToId, Pageable pageable);
-    Page<Task> findByProjectIdInAndPriorityAndAssignedToId(List<Long> projectIds, Priority priority, Long assignedToId, Pageable pageable);
-    Page<Task> findByProjectIdInAndStatusAndPriorityAndAssignedToId(List<Long> projectIds, Status status, Priority priority, Long assignedToId, Pageable pageable);
-    
-    // Find by assigned user
-    Page<Task> findByAssignedToId(Long userId, Pageable pageable);
-    Page<Task> findByAssignedToIdAndStatus(Long userId, Status status, Pageable pageable);
-    Page<Task> findByAssignedToIdAndPriority(Long userId, Priority priority, Pageable pageable);
-    Page<Task> findByAssignedToIdAndStatusAndPriority(Long userId, Status status, Priority priority, Pageable pageable);
-    
-    // Find by created by user
-    Page<Task> findByCreatedById(Long userId, Pageable pageable);
-    Page<Task> findByCreatedByIdAndStatus(Long userId, Status status, Pageable pageable);
-    Page<Task> findByCreatedByIdAndPriority(Long userId, Priority priority, Pageable pageable);
-    Page<Task> findByCreatedByIdAndStatusAndPriority(Long userId, Status status, Priority priority, Pageable pageable);
-}
\ No newline at end of file
+
+    // A task with everything its JSON includes, for endpoints that return the entity
+    @EntityGraph(Task.DETAIL_GRAPH)
+    Optional<Task> findDetailById(Long id);
+
+    // SELECT ... FOR UPDATE on the task row alone; held until commit, so concurrent changes apply one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Task> findLockedById(Long id);
+
+    // Open tasks past their deadline; walks idx_task_project_deadline from the project's earliest deadline
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.deadline < :today AND t.status NOT IN :closed")
+    long countOverdue(@Param("projectId") Long projectId,
+                      @Param("today") LocalDate today,
+                      @Param("closed") Collection<Task.Status> closed);
+
+    // Filtered list queries are built from TaskSpecifications and run through findSummarySlice
+
+    /**
+     * Ids of the best full-text matches among tasks the user can see, best first.
+     * The query is in MySQL boolean mode, e.g. {@code +login* +bug*}.
+     */
+    @Query(value = "SELECT t.id FROM tasks t JOIN projects p ON p.id = t.project_id " +
+                   "WHERE MATCH(t.title, t.description, t.search_labels) AGAINST (:query IN BOOLEAN MODE) " +
+                   "AND (:projectId IS NULL OR t.project_id = :projectId) " +
+                   "AND (p.owner_id = :userId OR EXISTS (SELECT 1 FROM project_members pm " +
+                   "     WHERE pm.project_id = t.project_id AND pm.user_id = :userId)) " +
+                   "ORDER BY MATCH(t.title, t.description, t.search_labels) AGAINST (:query IN BOOLEAN MODE) DESC, t.id DESC " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Long> searchIds(@Param("query") String query,
+                         @Param("userId") Long userId,
+                         @Param("projectId") Long projectId,
+                         @Param("limit") int limit);
+}
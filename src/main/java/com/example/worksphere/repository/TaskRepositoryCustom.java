@@ -0,0 +1,24 @@
+package com.example.worksphere.repository;
+
+import com.example.worksphere.dto.TaskSummaryDTO;
+import com.example.worksphere.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Run a filtered, sorted task query without the extra count(*) a Page needs.
+     * One row beyond the page size is fetched to tell whether a next page exists.
+     */
+    Slice<TaskSummaryDTO> findSummarySlice(Specification<Task> spec, Pageable pageable);
+
+    /**
+     * Every task matching the specification, as summaries
+     */
+    List<TaskSummaryDTO> findSummaries(Specification<Task> spec, Sort sort);
+}
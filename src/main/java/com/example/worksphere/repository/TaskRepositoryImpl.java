@@ -0,0 +1,107 @@
+package com.example.worksphere.repository;
+
+import com.example.worksphere.dto.LabelDTO;
+import com.example.worksphere.dto.TaskSummaryDTO;
+import com.example.worksphere.entity.Project;
+import com.example.worksphere.entity.Task;
+import com.example.worksphere.entity.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Criteria-backed implementation of {@link TaskRepositoryCustom}.
+ *
+ * Summaries are built with a constructor expression over the task, project and user
+ * columns, then labels for the whole page are read with one extra query.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TaskSummaryDTO> findSummarySlice(Specification<Task> spec, Pageable pageable) {
+        TypedQuery<TaskSummaryDTO> typedQuery = summaryQuery(spec, pageable.getSort());
+        int size = pageable.getPageSize();
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(size + 1);
+
+        List<TaskSummaryDTO> results = typedQuery.getResultList();
+        boolean hasNext = results.size() > size;
+        List<TaskSummaryDTO> content = hasNext ? results.subList(0, size) : results;
+        attachLabels(content);
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public List<TaskSummaryDTO> findSummaries(Specification<Task> spec, Sort sort) {
+        List<TaskSummaryDTO> results = summaryQuery(spec, sort).getResultList();
+        attachLabels(results);
+        return results;
+    }
+
+    private TypedQuery<TaskSummaryDTO> summaryQuery(Specification<Task> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummaryDTO> query = cb.createQuery(TaskSummaryDTO.class);
+        Root<Task> root = query.from(Task.class);
+        Join<Task, Project> project = root.join("project");
+        Join<Task, User> assignedTo = root.join("assignedTo", JoinType.LEFT);
+        Join<Task, User> createdBy = root.join("createdBy");
+
+        query.select(cb.construct(TaskSummaryDTO.class,
+                root.get("id"), root.get("title"), root.get("description"),
+                root.get("status"), root.get("priority"), root.get("deadline"),
+                root.get("createdAt"), root.get("updatedAt"),
+                project.get("id"), project.get("name"),
+                assignedTo.get("id"), assignedTo.get("firstName"), assignedTo.get("lastName"),
+                createdBy.get("id"), createdBy.get("firstName"), createdBy.get("lastName")));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private void attachLabels(List<TaskSummaryDTO> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, TaskSummaryDTO> byId = tasks.stream()
+                .collect(Collectors.toMap(TaskSummaryDTO::getId, Function.identity()));
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT l.task.id, l.id, l.name, l.color, l.createdAt FROM Label l " +
+                        "WHERE l.task.id IN :taskIds ORDER BY l.id", Object[].class)
+                .setParameter("taskIds", byId.keySet())
+                .getResultList();
+        for (Object[] row : rows) {
+            byId.get((Long) row[0]).getLabels()
+                    .add(new LabelDTO((Long) row[1], (String) row[2], (String) row[3], (LocalDateTime) row[4]));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.worksphere.repository;
+
+import com.example.worksphere.entity.Label;
+import com.example.worksphere.entity.ProjectMember;
+import com.example.worksphere.entity.Task;
+import com.example.worksphere.entity.Task.Priority;
+import com.example.worksphere.entity.Task.Status;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Composable filters for task queries.
+ * Every factory returns null when its argument is null, so callers can chain
+ * optional filters with {@link Specification#and} and get a single WHERE clause.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> withIds(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Task> inProject(Long projectId) {
+        if (projectId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    /**
+     * Tasks in projects the user owns or has a membership row in.
+     * Resolved as a subquery so the project list never leaves the database.
+     */
+    public static Specification<Task> accessibleTo(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> membership = query.subquery(Long.class);
+            Root<ProjectMember> member = membership.from(ProjectMember.class);
+            membership.select(member.get("id"))
+                    .where(cb.equal(member.get("project"), root.get("project")),
+                           cb.equal(member.get("user").get("id"), userId));
+
+            return cb.or(
+                    cb.equal(root.get("project").get("owner").get("id"), userId),
+                    cb.exists(membership));
+        };
+    }
+
+    public static Specification<Task> hasStatus(Status status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(Priority priority) {
+        if (priority == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Task> assignedTo(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("assignedTo").get("id"), userId);
+    }
+
+    public static Specification<Task> createdBy(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("createdBy").get("id"), userId);
+    }
+
+    public static Specification<Task> deadlineOnOrAfter(LocalDate from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("deadline"), from);
+    }
+
+    public static Specification<Task> deadlineOnOrBefore(LocalDate to) {
+        if (to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("deadline"), to);
+    }
+
+    /**
+     * Tasks carrying a label with the given name (case insensitive).
+     * Uses EXISTS rather than a join so a task is never returned twice.
+     */
+    public static Specification<Task> hasLabel(String labelName) {
+        if (labelName == null || labelName.isBlank()) {
+            return null;
+        }
+        String name = labelName.trim().toLowerCase();
+        return (root, query, cb) -> {
+            Subquery<Long> labels = query.subquery(Long.class);
+            Root<Label> label = labels.from(Label.class);
+            labels.select(label.get("id"))
+                    .where(cb.equal(label.get("task"), root),
+                           cb.equal(cb.lower(label.get("name")), name));
+            return cb.exists(labels);
+        };
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.worksphere.repository;
 
+import com.example.worksphere.dto.UserSummaryDTO;
 import com.example.worksphere.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +18,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Check if email is already registered (for signup validation)
     boolean existsByEmail(String email);
+
+    // Every user as a picker entry, for building UserDirectory
+    @Query("SELECT new com.example.worksphere.dto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.email) FROM User u")
+    List<UserSummaryDTO> findAllSummaries();
 }
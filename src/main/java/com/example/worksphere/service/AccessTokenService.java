@@ -0,0 +1,166 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.AuthenticatedUser;
+import com.example.worksphere.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies signed access tokens (compact HS256 JWTs carrying user id and role).
+ *
+ * Verification needs only the signing key, so any instance sharing the key can accept a token
+ * without a session or a database read. Revocation is the exception: revoked token ids, and
+ * per-user "issued before" cut-offs after a password change, are kept in memory until the
+ * tokens they cover would have expired anyway, and swept every minute after that. That list
+ * is per instance.
+ *
+ * iat carries milliseconds (NumericDate allows fractions) so a cut-off separates tokens issued
+ * within the same second; a token issued after a cut-off is always stamped later than it.
+ */
+@Slf4j
+@Service
+public class AccessTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String HEADER = encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final long PRUNE_INTERVAL_MS = 60_000;
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    // token id -> expiry (epoch seconds)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // user id -> tokens issued at or before this millisecond are rejected
+    private final Map<Long, Long> notBefore = new ConcurrentHashMap<>();
+
+    public AccessTokenService(
+            ObjectMapper objectMapper,
+            @Value("${worksphere.auth.token-secret:}") String secret,
+            @Value("${worksphere.auth.token-ttl-minutes:60}") long ttlMinutes) {
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttlMinutes * 60;
+
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            log.warn("worksphere.auth.token-secret is not set; using a random key, so tokens will not "
+                    + "survive a restart or be accepted by other instances");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * Sign a token for a user who has just proven their credentials
+     */
+    public String issue(User user) {
+        long issuedAt = Math.max(System.currentTimeMillis(), notBefore.getOrDefault(user.getId(), 0L) + 1);
+        Claims claims = new Claims(user.getId().toString(), user.getRole(), issuedAt / 1000.0,
+                issuedAt / 1000 + ttlSeconds, UUID.randomUUID().toString());
+        try {
+            String payload = encode(objectMapper.writeValueAsBytes(claims));
+            String unsigned = HEADER + "." + payload;
+            return unsigned + "." + encode(sign(unsigned));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write token claims", e);
+        }
+    }
+
+    /**
+     * Check signature, expiry and revocation. Never touches the database.
+     * @return the caller, or empty if the token is malformed, forged, expired or revoked
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3 || !HEADER.equals(parts[0])) {
+            return Optional.empty();
+        }
+
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(parts[2]);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(parts[0] + "." + parts[1]), signature)) {
+            return Optional.empty();
+        }
+
+        Claims claims;
+        Long userId;
+        try {
+            claims = objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), Claims.class);
+            userId = Long.valueOf(claims.sub());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        if (claims.exp() <= now
+                || revokedTokens.containsKey(claims.jti())
+                || Math.round(claims.iat() * 1000) <= notBefore.getOrDefault(userId, -1L)) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(userId, claims.role(), claims.jti(), claims.exp()));
+    }
+
+    /**
+     * Reject this token from now on, e.g. on logout
+     */
+    public void revoke(AuthenticatedUser user) {
+        revokedTokens.put(user.tokenId(), user.expiresAt());
+    }
+
+    /**
+     * Reject every token issued to a user so far, e.g. after a password change
+     */
+    public void revokeAll(Long userId) {
+        notBefore.put(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Drop entries whose tokens have expired by now; nothing they block could still verify
+     */
+    @Scheduled(fixedDelay = PRUNE_INTERVAL_MS, initialDelay = PRUNE_INTERVAL_MS)
+    public void prune() {
+        long now = System.currentTimeMillis() / 1000;
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        notBefore.values().removeIf(cutoff -> cutoff / 1000 + ttlSeconds <= now);
+    }
+
+    private byte[] sign(String content) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(content.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private record Claims(String sub, User.Role role, double iat, long exp, String jti) {
+    }
+}
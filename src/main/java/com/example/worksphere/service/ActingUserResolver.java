@@ -0,0 +1,37 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.AuthenticatedUser;
+import com.example.worksphere.entity.User;
+import com.example.worksphere.repository.UserRepository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Turns the acting user id a request names into a User.
+ *
+ * When the id is the one proven by the request's access token the user is known to exist,
+ * so a reference is returned without a query; its fields load only if something reads them.
+ * Requests without a token still get the existence check.
+ */
+@Service
+public class ActingUserResolver {
+
+    private final UserRepository userRepository;
+
+    public ActingUserResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @throws ResponseStatusException NOT_FOUND if the id is not from a token and no such user exists
+     */
+    public User resolve(Long userId) {
+        if (AuthenticatedUser.isCurrent(userId)) {
+            return userRepository.getReferenceById(userId);
+        }
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.worksphere.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where attachment bodies live. Content is addressed by its SHA-256, so identical
+ * uploads share one stored copy; every store takes a reference and every release drops one.
+ */
+public interface AttachmentStorage {
+
+    /**
+     * Store content and take a reference to it
+     * @throws org.springframework.web.server.ResponseStatusException PAYLOAD_TOO_LARGE past maxBytes
+     */
+    StoredBlob store(InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Drop one reference, removing the content with the last one once the transaction commits.
+     * Must run in the transaction that removes the referencing attachment.
+     * @return false if this storage does not hold the hash
+     */
+    boolean release(String hash) throws IOException;
+
+    /**
+     * Local file holding the content, for streaming it out
+     */
+    Path locate(String hash);
+
+    /**
+     * @param location value to keep in task_attachments.file_path
+     */
+    record StoredBlob(String hash, long size, String location) {
+    }
+}
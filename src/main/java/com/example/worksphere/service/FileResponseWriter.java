@@ -0,0 +1,138 @@
+package com.example.worksphere.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a file to an HTTP response with conditional GET and single byte-range support.
+ *
+ * The body is handed to Tomcat's sendfile when the connector supports it, so the kernel copies
+ * the file to the socket; otherwise it is sent with FileChannel.transferTo. Requests for several
+ * ranges at once get the whole file, which the spec allows.
+ */
+@Component
+public class FileResponseWriter {
+
+    // Tomcat request attributes for sendfile, see org.apache.coyote.Constants
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this the syscall saves nothing; same default as Tomcat's DefaultServlet
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    /**
+     * @param etag quoted strong ETag, or null to validate on modification time only
+     * @param contentDisposition header value, or null to omit it
+     */
+    public void write(ServletWebRequest webRequest, Path file, String etag, String contentType,
+                      String contentDisposition, CacheControl cacheControl) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        boolean notModified = etag != null
+                ? webRequest.checkNotModified(etag, lastModified)
+                : webRequest.checkNotModified(lastModified);
+        if (notModified) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType);
+        if (contentDisposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    // HttpRange clamps the end to the file but not the start, e.g. bytes=1000- or bytes=-0
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        rejectRange(response, length);
+                        return;
+                    }
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                rejectRange(response, length);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static void rejectRange(HttpServletResponse response, long length) throws IOException {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    /**
+     * A Range is only honoured when If-Range is absent or still names the current representation
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag != null && etag.equals(ifRange);
+        }
+        try {
+            // HTTP dates have second precision
+            return request.getDateHeader(HttpHeaders.IF_RANGE) >= lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
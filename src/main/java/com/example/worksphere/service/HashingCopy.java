@@ -0,0 +1,69 @@
+package com.example.worksphere.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Copies an upload to a new file through one direct buffer, computing its SHA-256 and
+ * size on the way, so the content is read and written exactly once with bounded memory.
+ */
+public final class HashingCopy {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private HashingCopy() {
+    }
+
+    /**
+     * @throws ResponseStatusException PAYLOAD_TOO_LARGE once more than maxBytes have been read;
+     *         the partly written target is left for the caller to remove
+     */
+    public static Result copy(InputStream content, Path target, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxBytes) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Uploads are limited to " + (maxBytes / (1024 * 1024)) + "MB");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return new Result(HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @param sha256 hex digest of the copied bytes
+     */
+    public record Result(String sha256, long size) {
+    }
+}
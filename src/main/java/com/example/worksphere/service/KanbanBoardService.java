@@ -1,13 +1,15 @@
 package com.example.worksphere.service;
 
 import com.example.worksphere.dto.KanbanBoardDTO;
+import com.example.worksphere.dto.ProjectAccess;
 import com.example.worksphere.dto.KanbanColumnDTO;
+import com.example.worksphere.dto.KanbanColumnOrderDTO;
+import com.example.worksphere.dto.KanbanEvent;
 import com.example.worksphere.dto.KanbanTaskDTO;
 import com.example.worksphere.entity.KanbanBoard;
 import com.example.worksphere.entity.KanbanColumn;
 import com.example.worksphere.entity.KanbanTask;
 import com.example.worksphere.entity.Project;
-import com.example.worksphere.entity.ProjectMember;
 import com.example.worksphere.entity.Task;
 import com.example.worksphere.entity.User;
 import com.example.worksphere.exception.ResourceNotFoundException;
@@ -17,9 +19,9 @@ import com.example.worksphere.repository.KanbanTaskRepository;
 import com.example.worksphere.repository.ProjectRepository;
 import com.example.worksphere.repository.TaskRepository;
 import com.example.worksphere.repository.UserRepository;
-import com.example.worksphere.repository.ProjectMemberRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +34,9 @@ import java.util.stream.Collectors;
 @Service
 public class KanbanBoardService {
 
+    // Spacing between card sort keys; a column is respaced when two neighbours run out of room
+    private static final long POSITION_GAP = 1024;
+
     @Autowired
     private KanbanBoardRepository kanbanBoardRepository;
 
@@ -51,7 +56,13 @@ public class KanbanBoardService {
     private UserRepository userRepository;
     
     @Autowired
-    private ProjectMemberRepository projectMemberRepository;
+    private ProjectAccessCache projectAccessCache;
+    
+    @Autowired
+    private ActingUserResolver actingUserResolver;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Get a kanban board by its ID
@@ -66,9 +77,6 @@ public class KanbanBoardService {
      * Get all kanban boards for a project
      */
     public KanbanBoardDTO getKanbanBoardByProjectId(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
-        
         checkProjectPermission(userId, projectId, "view kanban board in this project");
         
         List<KanbanBoard> boards = kanbanBoardRepository.findByProjectId(projectId);
@@ -100,9 +108,7 @@ KanbanBoard board = boards.get(0);
         //KanbanBoard board = findBoardById(boardId);
         checkBoardPermission(userId, boardId, "view columns on this board");
         
-        return kanbanColumnRepository.findByBoardIdOrderByPosition(boardId).stream()
-                .map(this::convertColumnToDTO)
-                .collect(Collectors.toList());
+        return loadColumnSnapshot(boardId);
     }
     
     public List<KanbanColumnDTO> getColumnsByProjectId(Long projectId, Long userId) {
@@ -142,7 +148,12 @@ KanbanBoard board = boards.get(0);
         newColumn.setPosition(position);
 
         KanbanColumn saved = kanbanColumnRepository.save(newColumn);
-        return KanbanColumnDTO.fromEntity(saved);
+        KanbanColumnDTO columnDTO = KanbanColumnDTO.fromEntity(saved);
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.COLUMN_ADDED)
+                .columnId(saved.getId())
+                .payload(columnDTO), board.getId(), userId);
+        return columnDTO;
     }
 
     
@@ -160,7 +171,12 @@ KanbanBoard board = boards.get(0);
                 .position(getNextColumnPosition(boardId))
                 .build();
         
-        return convertColumnToDTO(kanbanColumnRepository.save(column));
+        KanbanColumnDTO saved = convertColumnToDTO(kanbanColumnRepository.save(column));
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.COLUMN_ADDED)
+                .columnId(saved.getId())
+                .payload(saved), boardId, userId);
+        return saved;
     }
     
     /**
@@ -172,7 +188,12 @@ KanbanBoard board = boards.get(0);
         checkBoardPermission(userId, column.getBoard().getId(), "update columns on this board");
         
         column.setTitle(title);
-        return convertColumnToDTO(kanbanColumnRepository.save(column));
+        KanbanColumnDTO saved = convertColumnToDTO(kanbanColumnRepository.save(column));
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.COLUMN_RENAMED)
+                .columnId(columnId)
+                .payload(title), column.getBoard().getId(), userId);
+        return saved;
     }
     
     /**
@@ -193,13 +214,17 @@ KanbanBoard board = boards.get(0);
         kanbanColumnRepository.delete(column);
         
         reorderColumnsAfterDeletion(column.getBoard().getId(), column.getPosition());
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.COLUMN_DELETED)
+                .columnId(columnId), column.getBoard().getId(), userId);
     }
     
     /**
-     * Update the order of columns in a board
+     * Update the order of columns in a board.
+     * Only the applied order is returned; clients already hold the columns themselves.
      */
     @Transactional
-    public KanbanBoardDTO updateColumnOrder(Long boardId, List<Long> newColumnOrder, Long userId) {
+    public KanbanColumnOrderDTO updateColumnOrder(Long boardId, List<Long> newColumnOrder, Long userId) {
         //KanbanBoard board = findBoardById(boardId);
         checkBoardPermission(userId, boardId, "update column order on this board");
         
@@ -213,17 +238,18 @@ KanbanBoard board = boards.get(0);
                 "The new column order must contain all existing columns");
         }
         
+        Map<Long, Integer> positions = new HashMap<>();
         for (int i = 0; i < newColumnOrder.size(); i++) {
-            Long columnId = newColumnOrder.get(i);
-            KanbanColumn column = kanbanColumnRepository.findById(columnId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                        "Column not found with id: " + columnId));
-            
-            column.setPosition(i);
-            kanbanColumnRepository.save(column);
+            positions.put(newColumnOrder.get(i), i);
         }
         
-        return getKanbanBoardById(boardId, userId);
+        // The columns are already managed, so the changed rows go out as one JDBC batch at commit
+        columns.forEach(column -> column.setPosition(positions.get(column.getId())));
+        
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.COLUMNS_REORDERED)
+                .payload(newColumnOrder), boardId, userId);
+        return new KanbanColumnOrderDTO(newColumnOrder);
     }
 
     /**
@@ -258,20 +284,21 @@ KanbanBoard board = boards.get(0);
         }
         
         // Set position at the end if not specified
-        if (position == null) {
-            position = kanbanTaskRepository.countByKanbanColumnId(columnId).intValue();
-        } else {
-            shiftTaskPositionsInColumn(columnId, position, null);
-        }
-        
         KanbanTask kanbanTask = KanbanTask.builder()
                 .kanbanColumn(column)
                 .task(task)
-                .position(position)
+                .position(positionForIndex(columnId, null, position))
                 .build();
         
         kanbanTask = kanbanTaskRepository.save(kanbanTask);
-        return convertKanbanTaskToDTO(kanbanTask);
+        KanbanTaskDTO saved = convertKanbanTaskToDTO(kanbanTask);
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.CARD_ADDED)
+                .columnId(columnId)
+                .kanbanTaskId(saved.getId())
+                .taskId(taskId)
+                .payload(saved), saved.getKanbanBoardId(), userId);
+        return saved;
     }
 
     /**
@@ -282,16 +309,18 @@ KanbanBoard board = boards.get(0);
         KanbanTask kanbanTask = findKanbanTaskById(kanbanTaskId);
         checkBoardPermission(userId, kanbanTask.getKanbanColumn().getBoard().getId(), "remove tasks from this board");
         
-        Long columnId = kanbanTask.getKanbanColumn().getId();
-        Integer position = kanbanTask.getPosition();
-        
+        // Sort keys are sparse, so the remaining cards keep theirs
         kanbanTaskRepository.delete(kanbanTask);
-        
-        reorderTasksAfterRemoval(columnId, position);
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.CARD_REMOVED)
+                .columnId(kanbanTask.getKanbanColumn().getId())
+                .kanbanTaskId(kanbanTaskId)
+                .taskId(kanbanTask.getTask().getId()), kanbanTask.getKanbanColumn().getBoard().getId(), userId);
     }
 
     /**
-     * Update a task's position or move it to a different column
+     * Update a task's position or move it to a different column.
+     * The position is the index the card should end up at; only the moved card is written.
      */
     @Transactional
     public KanbanTaskDTO updateTaskPosition(Long kanbanTaskId, Long columnId, Integer position, Long userId) {
@@ -305,27 +334,19 @@ KanbanBoard board = boards.get(0);
                 "Cannot move task to a column on a different board");
         }
         
-        Long oldColumnId = kanbanTask.getKanbanColumn().getId();
-        Integer oldPosition = kanbanTask.getPosition();
-        
-        boolean columnChanged = !oldColumnId.equals(columnId);
-        
-        if (columnChanged) {
-            reorderTasksAfterRemoval(oldColumnId, oldPosition);
-            
-            shiftTaskPositionsInColumn(columnId, position, null);
-            
-            kanbanTask.setKanbanColumn(column);
-        } else if (!oldPosition.equals(position)) {
-            shiftTaskPositionsInSameColumn(columnId, oldPosition, position);
-        } else {
-            // No change needed
-            return convertKanbanTaskToDTO(kanbanTask);
-        }
-        
-        kanbanTask.setPosition(position);
-        
-        return convertKanbanTaskToDTO(kanbanTaskRepository.save(kanbanTask));
+        Long fromColumnId = kanbanTask.getKanbanColumn().getId();
+        kanbanTask.setPosition(positionForIndex(columnId, kanbanTaskId, position));
+        kanbanTask.setKanbanColumn(column);
+        
+        KanbanTaskDTO saved = convertKanbanTaskToDTO(kanbanTaskRepository.save(kanbanTask));
+        publishBoardEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.CARD_MOVED)
+                .columnId(columnId)
+                .fromColumnId(fromColumnId)
+                .kanbanTaskId(kanbanTaskId)
+                .taskId(saved.getTaskId())
+                .payload(saved), saved.getKanbanBoardId(), userId);
+        return saved;
     }
 
     /**
@@ -335,16 +356,7 @@ KanbanBoard board = boards.get(0);
         //KanbanBoard board = findBoardById(boardId);
         checkBoardPermission(userId, boardId, "view tasks on this board");
         
-        List<KanbanColumn> columns = kanbanColumnRepository.findByBoardId(boardId);
-        List<KanbanTask> tasks = new ArrayList<>();
-        
-        columns.forEach(column -> {
-            tasks.addAll(kanbanTaskRepository.findByKanbanColumnIdOrderByPosition(column.getId()));
-        });
-        
-        return tasks.stream()
-                .map(this::convertKanbanTaskToDTO)
-                .collect(Collectors.toList());
+        return kanbanTaskRepository.findTaskSnapshotByBoardId(boardId);
     }
 
     public List<KanbanTaskDTO> getTasksByColumnId(Long columnId, Long userId) {
@@ -357,7 +369,7 @@ KanbanBoard board = boards.get(0);
         checkBoardPermission(userId, boardId, "view tasks in this column");
         
         // Get all tasks for the specific column
-        List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdOrderByPosition(columnId);
+        List<KanbanTask> tasks = kanbanTaskRepository.findCardsByKanbanColumnIdOrderByPositionAscIdAsc(columnId);
         
         // Convert tasks to DTOs and return
         return tasks.stream()
@@ -369,7 +381,7 @@ KanbanBoard board = boards.get(0);
      * Find a kanban task by ID
      */
     public KanbanTask findKanbanTaskById(Long id) {
-        return kanbanTaskRepository.findById(id)
+        return kanbanTaskRepository.findCardById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     "KanbanTask not found with id: " + id));
     }
@@ -378,8 +390,7 @@ KanbanBoard board = boards.get(0);
      * Check if a user has permission to perform an action on a project
      */
     private void checkProjectPermission(Long userId, Long projectId, String action) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
         if (!isProjectOwnerOrManager(userId, projectId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
@@ -391,25 +402,31 @@ KanbanBoard board = boards.get(0);
      * Check if a user has permission to perform an action on a board
      */
     private void checkBoardPermission(Long userId, Long boardId, String action) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        
-        KanbanBoard board = findBoardById(boardId);
+        User user = actingUserResolver.resolve(userId);
         
-        if (!isProjectOwnerOrManager(user.getId(), board.getProject().getId())) {
+        if (!isProjectOwnerOrManager(user.getId(), projectAccessCache.projectIdForBoard(boardId))) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                 "You don't have permission to " + action);
         }
     }
     
+    /**
+     * Publish a board change; subscribers receive it once the surrounding transaction commits
+     */
+    private void publishBoardEvent(KanbanEvent.KanbanEventBuilder event, Long boardId, Long userId) {
+        eventPublisher.publishEvent(event
+                .boardId(boardId)
+                .projectId(projectAccessCache.projectIdForBoard(boardId))
+                .actorId(userId)
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+    
     /**
      * Convert a KanbanBoard entity to DTO
      */
     private KanbanBoardDTO convertBoardToDTO(KanbanBoard board) {
-        List<KanbanColumnDTO> columns = kanbanColumnRepository.findByBoardIdOrderByPosition(board.getId())
-                .stream()
-                .map(this::convertColumnToDTO)
-                .collect(Collectors.toList());
+        List<KanbanColumnDTO> columns = loadColumnSnapshot(board.getId());
         
         return KanbanBoardDTO.builder()
                 .id(board.getId())
@@ -420,11 +437,24 @@ KanbanBoard board = boards.get(0);
                 .build();
     }
     
+    /**
+     * Load every column of a board with its cards in two queries, whatever the board size
+     */
+    private List<KanbanColumnDTO> loadColumnSnapshot(Long boardId) {
+        List<KanbanColumnDTO> columns = kanbanColumnRepository.findColumnSnapshotByBoardId(boardId);
+        Map<Long, List<KanbanTaskDTO>> tasksByColumn = kanbanTaskRepository.findTaskSnapshotByBoardId(boardId)
+                .stream()
+                .collect(Collectors.groupingBy(KanbanTaskDTO::getKanbanColumnId));
+        
+        columns.forEach(column -> column.setTasks(tasksByColumn.getOrDefault(column.getId(), new ArrayList<>())));
+        return columns;
+    }
+    
     /**
      * Convert a KanbanColumn entity to DTO
      */
     private KanbanColumnDTO convertColumnToDTO(KanbanColumn column) {
-        List<KanbanTaskDTO> tasks = kanbanTaskRepository.findByKanbanColumnIdOrderByPosition(column.getId())
+        List<KanbanTaskDTO> tasks = kanbanTaskRepository.findCardsByKanbanColumnIdOrderByPositionAscIdAsc(column.getId())
                 .stream()
                 .map(this::convertKanbanTaskToDTO)
                 .collect(Collectors.toList());
@@ -482,48 +512,58 @@ KanbanBoard board = boards.get(0);
     }
     
     /**
-     * Reorder tasks after a task is removed
+     * Sort key that puts a card at the given index of a column, ignoring the card itself.
+     * A null index appends to the end.
      */
-    private void reorderTasksAfterRemoval(Long columnId, Integer deletedPosition) {
-        List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdAndPositionGreaterThan(columnId, deletedPosition);
-        tasks.forEach(task -> {
-            task.setPosition(task.getPosition() - 1);
-            kanbanTaskRepository.save(task);
-        });
-    }
-    
-    /**
-     * Shift task positions in a column when adding a new task
-     */
-    private void shiftTaskPositionsInColumn(Long columnId, Integer startPosition, Integer endPosition) {
-        if (endPosition == null) {
-            List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdAndPositionGreaterThanEqual(columnId, startPosition);
-            tasks.forEach(task -> {
-                task.setPosition(task.getPosition() + 1);
-                kanbanTaskRepository.save(task);
-            });
+    long positionForIndex(Long columnId, Long kanbanTaskId, Integer index) {
+        Long before;
+        Long after;
+        if (index == null) {
+            before = kanbanTaskRepository.findMaxPosition(columnId).orElse(null);
+            after = null;
+        } else if (index <= 0) {
+            before = null;
+            after = kanbanTaskRepository.findPositionsInColumn(columnId, kanbanTaskId, 0, 1).stream()
+                    .findFirst().orElse(null);
+        } else {
+            List<Long> neighbours = kanbanTaskRepository.findPositionsInColumn(columnId, kanbanTaskId, index - 1, 2);
+            if (neighbours.isEmpty()) {
+                // Past the end of the column
+                before = kanbanTaskRepository.findMaxPosition(columnId).orElse(null);
+                after = null;
+            } else {
+                before = neighbours.get(0);
+                after = neighbours.size() > 1 ? neighbours.get(1) : null;
+            }
+        }
+        
+        if (before == null && after == null) {
+            return POSITION_GAP;
+        } else if (before == null) {
+            return after - POSITION_GAP;
+        } else if (after == null) {
+            return before + POSITION_GAP;
+        } else if (after - before > 1) {
+            return before + (after - before) / 2;
         }
+        
+        // No room left between the neighbours: respace the column once, then retry
+        respaceColumn(columnId);
+        return positionForIndex(columnId, kanbanTaskId, index);
     }
     
     /**
-     * Shift task positions in the same column when moving a task
+     * Spread a column's sort keys back out to POSITION_GAP apart, keeping their order
      */
-    private void shiftTaskPositionsInSameColumn(Long columnId, Integer oldPosition, Integer newPosition) {
-        if (oldPosition < newPosition) {
-            List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdAndPositionBetween(
-                    columnId, oldPosition + 1, newPosition);
-            tasks.forEach(task -> {
-                task.setPosition(task.getPosition() - 1);
-                kanbanTaskRepository.save(task);
-            });
-        } else {
-            List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdAndPositionBetween(
-                    columnId, newPosition, oldPosition - 1);
-            tasks.forEach(task -> {
-                task.setPosition(task.getPosition() + 1);
-                kanbanTaskRepository.save(task);
-            });
+    private void respaceColumn(Long columnId) {
+        List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdOrderByPositionAscIdAsc(columnId);
+        long position = POSITION_GAP;
+        for (KanbanTask task : tasks) {
+            task.setPosition(position);
+            position += POSITION_GAP;
         }
+        kanbanTaskRepository.saveAll(tasks);
+        kanbanTaskRepository.flush();
     }
     
     /**
@@ -554,25 +594,11 @@ KanbanBoard board = boards.get(0);
     }
     
     /**
-     * Check if a user is a member of a project
-     */
-    private boolean isUserMemberOfProject(Long userId, Long projectId) {
-        return projectMemberRepository.existsByUserIdAndProjectId(userId, projectId);
-    }
-    
-    /**
-     * Check if a user is a project owner or manager
+     * Check if a user is a project owner or active manager
      */
     private boolean isProjectOwnerOrManager(Long userId, Long projectId) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
-        
-        if (project.getOwner().getId().equals(userId)) {
-            return true;
-        }
-        
-        Optional<ProjectMember> membership = projectMemberRepository.findByProjectIdAndUserId(userId, projectId);
-        return membership.isPresent() && (ProjectMember.Role.PROJECT_MANAGER.equals(membership.get().getRole()));
+        ProjectAccess access = projectAccessCache.resolve(userId, projectId);
+        return access.isOwner(userId) || access.isActiveManager();
     }
 
     /**
@@ -582,25 +608,7 @@ public List<KanbanColumnDTO> getColumnsWithTasksByBoardId(Long boardId, Long use
     // Check board permission
     //checkBoardPermission(userId, boardId, "view this board");
     
-    // Get all columns for this board
-    List<KanbanColumn> columns = kanbanColumnRepository.findByBoardId(boardId);
-    List<KanbanColumnDTO> columnDTOs = new ArrayList<>();
-    
-    // For each column, get its tasks and convert to DTO
-    for (KanbanColumn column : columns) {
-        KanbanColumnDTO columnDTO = KanbanColumnDTO.fromEntity(column);
-        
-        // Get tasks for this column
-        List<KanbanTask> tasks = kanbanTaskRepository.findByKanbanColumnIdOrderByPosition(column.getId());
-        List<KanbanTaskDTO> taskDTOs = tasks.stream()
-                .map(this::convertKanbanTaskToDTO)
-                .collect(Collectors.toList());
-        
-        // Set tasks on the column DTO
-        columnDTO.setTasks(taskDTOs);
-        columnDTOs.add(columnDTO);
-    }
-    
-    return columnDTOs;
+    // Columns in position order, each with its tasks
+    return loadColumnSnapshot(boardId);
 }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.KanbanEvent;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards kanban events to STOMP subscribers once the change is committed,
+ * so clients never see a move that was rolled back.
+ */
+@Component
+public class KanbanEventBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public KanbanEventBroadcaster(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // fallbackExecution covers the few kanban writes that run outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void broadcast(KanbanEvent event) {
+        // One topic per event, so a client following both a board and its project sees it once
+        if (event.getBoardId() != null) {
+            messagingTemplate.convertAndSend("/topic/boards/" + event.getBoardId(), event);
+        } else if (event.getProjectId() != null) {
+            messagingTemplate.convertAndSend("/topic/projects/" + event.getProjectId(), event);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.repository.AttachmentBlobRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Attachment storage on the local filesystem, one file per distinct content at
+ * {@code <root>/ab/cd/<sha256>}, with reference counts in attachment_blobs.
+ *
+ * Uploads are written to a temp file while hashing, then the reference is taken and the
+ * file moved into place unless an identical blob is already there. Releasing the last
+ * reference removes the count row; the file is only deleted once that has committed, so a
+ * rollback never leaves a row pointing at missing content. The delete re-checks under a lock
+ * that no upload has taken the hash again meanwhile, and an upload that arrives after it
+ * finds the file gone and puts it back.
+ */
+@Component
+public class LocalAttachmentStorage implements AttachmentStorage {
+
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final Path root;
+    private final Path tempDirectory;
+    private final TransactionTemplate newTransaction;
+
+    public LocalAttachmentStorage(
+            AttachmentBlobRepository attachmentBlobRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${worksphere.attachments.root:uploads/attachments}") String root) {
+        this.attachmentBlobRepository = attachmentBlobRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.root = Paths.get(root);
+        this.tempDirectory = this.root.resolve("tmp");
+    }
+
+    @Override
+    public StoredBlob store(InputStream content, long maxBytes) throws IOException {
+        Files.createDirectories(tempDirectory);
+        Path temp = tempDirectory.resolve(UUID.randomUUID() + ".part");
+        try {
+            HashingCopy.Result copied = HashingCopy.copy(content, temp, maxBytes);
+            String hash = copied.sha256();
+            long size = copied.size();
+
+            attachmentBlobRepository.acquire(hash, size);
+            Path target = locate(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Another upload of the same content got there first
+                }
+            }
+            return new StoredBlob(hash, size, target.toString());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean release(String hash) {
+        if (attachmentBlobRepository.release(hash) == 0) {
+            return false;
+        }
+        if (attachmentBlobRepository.deleteIfUnreferenced(hash) == 1) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnreferenced(hash);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Delete a blob's file unless an upload has re-created its row. Locking the (absent) row
+     * makes a concurrent acquire of the same hash wait until the file is gone.
+     */
+    private void deleteIfUnreferenced(String hash) {
+        newTransaction.executeWithoutResult(status -> {
+            if (attachmentBlobRepository.findLockedByContentHash(hash).isPresent()) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(locate(hash));
+            } catch (IOException e) {
+                // Left for an orphan sweep; nothing references it
+            }
+        });
+    }
+
+    @Override
+    public Path locate(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.worksphere.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Nightly job moving old read notifications out of the live table.
+ * Each batch is its own transaction so the job never holds locks on more than one batch.
+ */
+@Slf4j
+@Component
+public class NotificationArchiver {
+
+    private final NotificationService notificationService;
+    private final int archiveAfterDays;
+    private final int batchSize;
+
+    public NotificationArchiver(
+            NotificationService notificationService,
+            @Value("${worksphere.notifications.archive.after-days:90}") int archiveAfterDays,
+            @Value("${worksphere.notifications.archive.batch-size:500}") int batchSize) {
+        this.notificationService = notificationService;
+        this.archiveAfterDays = archiveAfterDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${worksphere.notifications.archive.cron:0 30 3 * * *}")
+    public void archiveOldReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        int total = 0;
+        int archived;
+        do {
+            archived = notificationService.archiveReadNotifications(cutoff, batchSize);
+            total += archived;
+        } while (archived == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} read notifications created before {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.NotificationEvent;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Applies notification changes to the unread counter and pushes them to the user once committed.
+ * Delivered to the user's own /user/queue/notifications, which only their sessions can subscribe to.
+ */
+@Component
+public class NotificationPusher {
+
+    private final UnreadNotificationCounter unreadCounter;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public NotificationPusher(UnreadNotificationCounter unreadCounter, SimpMessagingTemplate messagingTemplate) {
+        this.unreadCounter = unreadCounter;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void push(NotificationEvent event) {
+        Long userId = event.getUserId();
+        long unread = switch (event.getType()) {
+            case CREATED -> unreadCounter.increment(userId);
+            case READ -> unreadCounter.decrement(userId);
+            case ALL_READ -> unreadCounter.reset(userId);
+            case REFRESH -> unreadCounter.reload(userId);
+        };
+        event.setUnreadCount(unread);
+        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/notifications", event);
+    }
+}
@@ -1,21 +1,37 @@
 package com.example.worksphere.service;
 
+import com.example.worksphere.dto.NotificationDTO;
+import com.example.worksphere.dto.NotificationEvent;
 import com.example.worksphere.entity.Notification;
+import com.example.worksphere.repository.FeedCursor;
 import com.example.worksphere.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+                               UnreadNotificationCounter unreadCounter,
+                               ApplicationEventPublisher eventPublisher) {
         this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -25,11 +41,46 @@ public class NotificationService {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    /**
+     * One page of a user's notifications, newest first.
+     * Pass the cursor of the previous page to continue; null starts from the newest.
+     */
+    public Slice<Notification> getNotificationFeed(Long userId, String before, int limit) {
+        // One extra row tells whether there is a next page
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Notification> rows;
+        if (before == null || before.isBlank()) {
+            rows = notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, page);
+        } else {
+            FeedCursor.Position cursor = decodeCursor(before);
+            rows = notificationRepository.findFeedPageBefore(
+                    userId, cursor.createdAt(), cursor.id(), page);
+        }
+        
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.of(0, limit), hasNext);
+    }
+
+    /**
+     * Cursor continuing after the last notification of a page, or null on the last page
+     */
+    public String nextFeedCursor(Slice<Notification> page) {
+        return FeedCursor.next(page, Notification::getCreatedAt, Notification::getId);
+    }
+
+    private FeedCursor.Position decodeCursor(String cursor) {
+        try {
+            return FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
     /**
      * Count unread notifications for a user
      */
     public long countUnreadNotifications(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     /**
@@ -38,7 +89,16 @@ public class NotificationService {
      */
     @Transactional
     public boolean markNotificationAsRead(Long notificationId, Long userId) {
-        return notificationRepository.markAsRead(notificationId, userId) > 0;
+        if (notificationRepository.markAsRead(notificationId, userId) == 0) {
+            // Already read is still a success; only a missing notification is not
+            return notificationRepository.existsByIdAndUserId(notificationId, userId);
+        }
+        eventPublisher.publishEvent(NotificationEvent.builder()
+                .type(NotificationEvent.Type.READ)
+                .userId(userId)
+                .notificationId(notificationId)
+                .build());
+        return true;
     }
 
     /**
@@ -47,7 +107,14 @@ public class NotificationService {
      */
     @Transactional
     public int markAllNotificationsAsRead(Long userId) {
-        return notificationRepository.markAllAsReadForUser(userId);
+        int updated = notificationRepository.markAllAsReadForUser(userId);
+        if (updated > 0) {
+            eventPublisher.publishEvent(NotificationEvent.builder()
+                    .type(NotificationEvent.Type.ALL_READ)
+                    .userId(userId)
+                    .build());
+        }
+        return updated;
     }
 
     /**
@@ -55,7 +122,13 @@ public class NotificationService {
      */
     @Transactional
     public Notification createNotification(Notification notification) {
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        eventPublisher.publishEvent(NotificationEvent.builder()
+                .type(NotificationEvent.Type.CREATED)
+                .userId(saved.getUserId())
+                .notification(NotificationDTO.fromEntity(saved))
+                .build());
+        return saved;
     }
 
     /**
@@ -69,6 +142,34 @@ public class NotificationService {
         notification.setInviteId(inviteId);
         notification.setIsRead(false);
         
-        return notificationRepository.save(notification);
+        return createNotification(notification);
+    }
+
+    /**
+     * Move one batch of read notifications created before the cutoff into notifications_archive
+     * @return number of notifications archived
+     */
+    @Transactional
+    public int archiveReadNotifications(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = notificationRepository.findReadIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        notificationRepository.copyToArchive(ids);
+        return notificationRepository.deleteByIdIn(ids);
+    }
+
+    /**
+     * Tell a user their notifications changed without going through this service,
+     * e.g. a write that fires one of the notification triggers in the database
+     */
+    public void notificationsChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        eventPublisher.publishEvent(NotificationEvent.builder()
+                .type(NotificationEvent.Type.REFRESH)
+                .userId(userId)
+                .build());
     }
-}
\ No newline at end of file
+}
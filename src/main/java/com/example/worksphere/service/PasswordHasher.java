@@ -0,0 +1,114 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.exception.ServerBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool.
+ *
+ * BCrypt is deliberately slow, so a burst of logins run on request threads would
+ * occupy every Tomcat worker. Here at most one hash per thread runs at a time, a
+ * bounded queue absorbs short bursts, and anything beyond that is refused with a
+ * 503 and Retry-After instead of piling up. Callers get a future, so the request
+ * thread is released while the hash is computed.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer matchTimer;
+    private final Timer encodeTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${worksphere.password-hashing.threads:0}") int threads,
+            @Value("${worksphere.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${worksphere.password-hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchTimer = Timer.builder("worksphere.password.hash")
+                .description("Time spent hashing passwords, excluding queueing")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("worksphere.password.hash")
+                .description("Time spent hashing passwords, excluding queueing")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("worksphere.password.hash.rejected")
+                .description("Hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("worksphere.password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Hashing requests waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Check a password against a stored hash
+     * @throws ServerBusyException if the hashing queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hash a password with the current algorithm and cost
+     * @throws ServerBusyException if the hashing queue is full
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Whether a stored hash uses an older algorithm or a lower cost than new hashes do.
+     * Cheap: reads the hash's header only.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(work), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServerBusyException("Too many password checks in progress, please retry shortly", retryAfterSeconds);
+        }
+    }
+}
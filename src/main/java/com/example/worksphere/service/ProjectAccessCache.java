@@ -0,0 +1,133 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.ProjectAccess;
+import com.example.worksphere.repository.KanbanBoardRepository;
+import com.example.worksphere.repository.ProjectRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of (userId, projectId) access decisions.
+ *
+ * Task and kanban endpoints check project access on every call; this resolves owner,
+ * visibility, role and status in one query and keeps the answer for a few seconds.
+ * Membership and project changes evict the affected entries, again after commit so a
+ * concurrent reader cannot re-cache the old row.
+ */
+@Service
+public class ProjectAccessCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final ProjectRepository projectRepository;
+    private final KanbanBoardRepository kanbanBoardRepository;
+    private final long ttlMillis;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // A board never moves to another project, so this needs no expiry
+    private final Map<Long, Long> boardProjects = new ConcurrentHashMap<>();
+
+    public ProjectAccessCache(
+            ProjectRepository projectRepository,
+            KanbanBoardRepository kanbanBoardRepository,
+            @Value("${worksphere.access-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.projectRepository = projectRepository;
+        this.kanbanBoardRepository = kanbanBoardRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Resolve what a user may do in a project
+     * @throws ResponseStatusException NOT_FOUND if the project does not exist
+     */
+    public ProjectAccess resolve(Long userId, Long projectId) {
+        Key key = new Key(userId, projectId);
+        long now = System.currentTimeMillis();
+
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.access();
+        }
+
+        ProjectAccess access = projectRepository.findAccess(projectId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(access, now + ttlMillis));
+        return access;
+    }
+
+    /**
+     * Resolve a user's access to the project owning a board
+     * @throws ResponseStatusException NOT_FOUND if the board does not exist
+     */
+    public ProjectAccess resolveForBoard(Long userId, Long boardId) {
+        return resolve(userId, projectIdForBoard(boardId));
+    }
+
+    /**
+     * Project a board belongs to
+     */
+    public Long projectIdForBoard(Long boardId) {
+        Long projectId = boardProjects.get(boardId);
+        if (projectId == null) {
+            projectId = kanbanBoardRepository.findProjectIdById(boardId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "KanbanBoard not found with id: " + boardId));
+            if (boardProjects.size() >= MAX_ENTRIES) {
+                boardProjects.clear();
+            }
+            boardProjects.put(boardId, projectId);
+        }
+        return projectId;
+    }
+
+    /**
+     * Forget one user's access to a project, e.g. after a membership change
+     */
+    public void evict(Long userId, Long projectId) {
+        Key key = new Key(userId, projectId);
+        runNowAndAfterTransaction(() -> entries.remove(key));
+    }
+
+    /**
+     * Forget every user's access to a project, e.g. after an ownership or visibility change
+     */
+    public void evictProject(Long projectId) {
+        runNowAndAfterTransaction(() -> {
+            entries.keySet().removeIf(key -> key.projectId().equals(projectId));
+            boardProjects.values().removeIf(projectId::equals);
+        });
+    }
+
+    private void runNowAndAfterTransaction(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record Key(Long userId, Long projectId) {
+    }
+
+    private record Entry(ProjectAccess access, long expiresAt) {
+    }
+}
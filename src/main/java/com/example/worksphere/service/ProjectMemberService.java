@@ -27,6 +27,8 @@ public class ProjectMemberService {
     private final ProjectMemberRepository projectMemberRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectAccessCache projectAccessCache;
+    private final NotificationService notificationService;
 
     /**
      * Find a member by project and user IDs
@@ -50,7 +52,7 @@ public class ProjectMemberService {
             } catch (IllegalArgumentException e) {
             }
         }
-        return projectMemberRepository.save(member);
+        return saveMember(member);
     }
 
     @Transactional
@@ -70,7 +72,7 @@ public class ProjectMemberService {
                 // Invalid role, keep existing
             }
         }
-        return projectMemberRepository.save(member);
+        return saveMember(member);
     }
 
     /**
@@ -111,7 +113,7 @@ public class ProjectMemberService {
             updatedMember.setStatus(ProjectMember.Status.INVITED);
             updatedMember.setRole(role);
             
-            return projectMemberRepository.save(updatedMember);
+            return saveMember(updatedMember);
         }
 
         if (projectMemberRepository.existsByProjectAndUserAndStatusIn(project, targetUser, 
@@ -126,7 +128,7 @@ public class ProjectMemberService {
                 .status(ProjectMember.Status.INVITED)
                 .build();
 
-        return projectMemberRepository.save(projectMember);
+        return saveMember(projectMember);
     }
 
     /**
@@ -159,7 +161,7 @@ public class ProjectMemberService {
             updatedMember.setStatus(ProjectMember.Status.INVITED);
             updatedMember.setRole(role);
             
-            return projectMemberRepository.save(updatedMember);
+            return saveMember(updatedMember);
         }
         
         // Validate inviter permissions (optional, based on your logic)
@@ -186,7 +188,7 @@ public class ProjectMemberService {
                 .status(ProjectMember.Status.INVITED)
                 .build();
 
-        return projectMemberRepository.save(member);
+        return saveMember(member);
     }
 
     /**
@@ -222,7 +224,7 @@ public class ProjectMemberService {
         }
 
         projectMember.setStatus(accept ? ProjectMember.Status.ACTIVE : ProjectMember.Status.REMOVED);
-        return projectMemberRepository.save(projectMember);
+        return saveMember(projectMember);
     }
 
     /**
@@ -271,7 +273,7 @@ public class ProjectMemberService {
         }
 
         member.setStatus(ProjectMember.Status.REMOVED);
-        projectMemberRepository.save(member);
+        saveMember(member);
     }
 
     /**
@@ -313,7 +315,7 @@ public class ProjectMemberService {
         }
 
         member.setStatus(ProjectMember.Status.LEFT);
-        projectMemberRepository.save(member);
+        saveMember(member);
     }
 
     /**
@@ -366,7 +368,7 @@ public class ProjectMemberService {
         }
         
         // Save the ProjectMember entity in the database
-        return projectMemberRepository.save(projectMember);
+        return saveMember(projectMember);
     }
     
     /**
@@ -489,8 +491,7 @@ public class ProjectMemberService {
      * @return True if the user is a member
      */
     public boolean isUserProjectMember(Long userId, Long projectId) {
-        return projectMemberRepository.existsByProjectIdAndUserIdAndStatus(
-            projectId, userId, ProjectMember.Status.ACTIVE);
+        return projectAccessCache.resolve(userId, projectId).isActiveMember();
     }
     
     /**
@@ -500,8 +501,24 @@ public class ProjectMemberService {
      * @return True if the user is a project manager
      */
     public boolean isUserProjectManager(Long userId, Long projectId) {
-        return projectMemberRepository.existsByProjectIdAndUserIdAndRoleAndStatus(
-            projectId, userId, ProjectMember.Role.PROJECT_MANAGER, ProjectMember.Status.ACTIVE);
+        return projectAccessCache.resolve(userId, projectId).isActiveManager();
+    }
+    
+    /**
+     * Save a membership and drop any cached access decision for it
+     */
+    private ProjectMember saveMember(ProjectMember member) {
+        ProjectMember saved = projectMemberRepository.save(member);
+        projectAccessCache.evict(saved.getUser().getId(), saved.getProject().getId());
+        
+        // The membership triggers notify the invitee on invite and the owner on acceptance
+        if (saved.getStatus() == ProjectMember.Status.INVITED) {
+            notificationService.notificationsChanged(saved.getUser().getId());
+        } else if (saved.getStatus() == ProjectMember.Status.ACTIVE) {
+            notificationService.notificationsChanged(
+                    projectAccessCache.resolve(saved.getUser().getId(), saved.getProject().getId()).getOwnerId());
+        }
+        return saved;
     }
     
     /**
@@ -6,9 +6,11 @@ import com.example.worksphere.entity.User;
 import com.example.worksphere.repository.ProjectRepository;
 import com.example.worksphere.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,14 +20,23 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectMemberService projectMemberService;  // Add this service
+    private final ProjectAccessCache projectAccessCache;
+    private final ActingUserResolver actingUserResolver;
+    private final TaskAttachmentService taskAttachmentService;
 
     public ProjectService(
             ProjectRepository projectRepository, 
             UserRepository userRepository,
-            ProjectMemberService projectMemberService) {  // Update constructor
+            ProjectMemberService projectMemberService,
+            ProjectAccessCache projectAccessCache,
+            ActingUserResolver actingUserResolver,
+            TaskAttachmentService taskAttachmentService) {  // Update constructor
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.projectMemberService = projectMemberService;
+        this.projectAccessCache = projectAccessCache;
+        this.actingUserResolver = actingUserResolver;
+        this.taskAttachmentService = taskAttachmentService;
     }
 
     public List<Project> getAllProjects(Long userId) {
@@ -126,11 +137,14 @@ public class ProjectService {
                     existingProject.setStartDate(projectDTO.getStartDate());
                     existingProject.setEndDate(projectDTO.getEndDate());
 
+                    // Owner and visibility feed every cached access decision for this project
+                    projectAccessCache.evictProject(id);
                     return projectRepository.save(existingProject);
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
     }
 
+    @Transactional
     public void deleteProject(Long id, Long userId) {
         Project project = projectRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
@@ -141,12 +155,19 @@ public class ProjectService {
                 "Only the project owner can delete this project");
         }
         
+        // Tasks and their attachment rows cascade away with the project; shared content is released here
+        try {
+            taskAttachmentService.releaseProjectAttachments(id);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not remove project attachments");
+        }
+        
         projectRepository.deleteById(id);
+        projectAccessCache.evictProject(id);
     }
     
     // Helper method to get user or throw exception
     private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        return actingUserResolver.resolve(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.ProjectTaskStatsDTO;
+import com.example.worksphere.entity.ProjectTaskCount;
+import com.example.worksphere.entity.Task;
+import com.example.worksphere.entity.Task.Priority;
+import com.example.worksphere.entity.Task.Status;
+import com.example.worksphere.repository.ProjectTaskCountRepository;
+import com.example.worksphere.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Per-project task counts by status and priority, maintained incrementally so dashboards
+ * read a handful of rows instead of every task.
+ *
+ * The adjust calls join the caller's transaction. Overdue depends on today's date rather than
+ * on any task change, so it is counted on read from the (project_id, deadline) index, which
+ * only visits tasks whose deadline has already passed.
+ *
+ * The grid is recounted from tasks at startup, so a table that Hibernate just created empty,
+ * or one that missed changes while another build was running, starts out right.
+ */
+@Slf4j
+@Service
+public class ProjectTaskCounter {
+
+    private static final EnumSet<Status> CLOSED = EnumSet.of(Status.COMPLETED, Status.CANCELED);
+
+    private final ProjectTaskCountRepository projectTaskCountRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    public ProjectTaskCounter(
+            ProjectTaskCountRepository projectTaskCountRepository,
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${worksphere.task-counts.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.projectTaskCountRepository = projectTaskCountRepository;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // e.g. chosen as a deadlock victim against a task change; the stored counts still serve
+            log.warn("Could not rebuild project task counts", e);
+        }
+    }
+
+    /**
+     * Replace every count with one recounted from tasks, in one transaction. The recount reads
+     * tasks under shared locks, so task changes made meanwhile wait and then apply on top.
+     */
+    public void rebuild() {
+        Integer cells = transactionTemplate.execute(status -> {
+            projectTaskCountRepository.deleteAllCounts();
+            return projectTaskCountRepository.insertCountsFromTasks();
+        });
+        log.info("Rebuilt project task counts: {} cells", cells);
+    }
+
+    public void taskAdded(Task task) {
+        adjust(task.getProject().getId(), task.getStatus(), task.getPriority(), 1);
+    }
+
+    public void taskRemoved(Task task) {
+        adjust(task.getProject().getId(), task.getStatus(), task.getPriority(), -1);
+    }
+
+    /**
+     * Move a task between cells; a no-op if neither status nor priority changed
+     */
+    public void taskChanged(Long projectId, Status oldStatus, Priority oldPriority,
+                            Status newStatus, Priority newPriority) {
+        if (oldStatus == newStatus && oldPriority == newPriority) {
+            return;
+        }
+        adjust(projectId, oldStatus, oldPriority, -1);
+        adjust(projectId, newStatus, newPriority, 1);
+    }
+
+    public ProjectTaskStatsDTO getStats(Long projectId) {
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        for (Status status : Status.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (Priority priority : Priority.values()) {
+            byPriority.put(priority, 0L);
+        }
+
+        long total = 0;
+        for (ProjectTaskCount count : projectTaskCountRepository.findByProjectId(projectId)) {
+            byStatus.merge(count.getStatus(), (long) count.getTaskCount(), Long::sum);
+            byPriority.merge(count.getPriority(), (long) count.getTaskCount(), Long::sum);
+            total += count.getTaskCount();
+        }
+
+        long overdue = taskRepository.countOverdue(projectId, LocalDate.now(), CLOSED);
+        long counted = total - byStatus.get(Status.CANCELED);
+        int completedPercent = counted > 0 ? (int) (byStatus.get(Status.COMPLETED) * 100 / counted) : 0;
+        return new ProjectTaskStatsDTO(projectId, total, byStatus, byPriority, overdue, completedPercent);
+    }
+
+    private void adjust(Long projectId, Status status, Priority priority, int delta) {
+        projectTaskCountRepository.adjust(projectId, status.name(), priority.name(), delta);
+    }
+}
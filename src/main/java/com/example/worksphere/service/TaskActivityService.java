@@ -1,42 +1,98 @@
 package com.example.worksphere.service;
 
+import com.example.worksphere.dto.TaskActivityDTO;
+import com.example.worksphere.entity.Label;
+import com.example.worksphere.entity.Task;
 import com.example.worksphere.entity.TaskActivityLog;
+import com.example.worksphere.entity.TaskActivityLog.ActivityAction;
+import com.example.worksphere.entity.TaskAttachment;
 import com.example.worksphere.entity.User;
+import com.example.worksphere.repository.FeedCursor;
 import com.example.worksphere.repository.TaskActivityLogRepository;
+import com.example.worksphere.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class TaskActivityService {
 
     private final TaskActivityLogRepository taskActivityLogRepository;
+    private final TaskActivityWriter taskActivityWriter;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
     
     @Autowired
-    public TaskActivityService(TaskActivityLogRepository taskActivityLogRepository) {
+    public TaskActivityService(TaskActivityLogRepository taskActivityLogRepository,
+                               TaskActivityWriter taskActivityWriter,
+                               UserRepository userRepository,
+                               ObjectMapper objectMapper) {
         this.taskActivityLogRepository = taskActivityLogRepository;
+        this.taskActivityWriter = taskActivityWriter;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
     }
     
     /**
      * Get all activities for a specific task
      */
-    public List<TaskActivityLog> getTaskActivities(Long taskId) {
-        return taskActivityLogRepository.findByTaskIdOrderByCreatedAtDesc(taskId);
+    public List<TaskActivityDTO> getTaskActivities(Long taskId) {
+        return taskActivityLogRepository.findTaskFeed(taskId);
     }
     
     /**
-     * Get all activities for multiple tasks
+     * One page of activity across all tasks of a project, newest first.
+     * Pass the cursor of the previous page to continue; null starts from the newest.
      */
-    public List<TaskActivityLog> getActivitiesForTasks(List<Long> taskIds) {
-        return taskActivityLogRepository.findByTaskIdsOrderByCreatedAtDesc(taskIds);
+    public Slice<TaskActivityDTO> getProjectActivityFeed(Long projectId, String before, int limit) {
+        // One extra row tells whether there is a next page
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<TaskActivityDTO> rows;
+        if (before == null || before.isBlank()) {
+            rows = taskActivityLogRepository.findProjectFeed(projectId, page);
+        } else {
+            FeedCursor.Position cursor = decodeCursor(before);
+            rows = taskActivityLogRepository.findProjectFeedBefore(
+                    projectId, cursor.createdAt(), cursor.id(), page);
+        }
+        
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.of(0, limit), hasNext);
+    }
+    
+    /**
+     * Cursor continuing after the last activity of a page, or null on the last page
+     */
+    public String nextFeedCursor(Slice<TaskActivityDTO> page) {
+        return FeedCursor.next(page, TaskActivityDTO::getCreatedAt, TaskActivityDTO::getId);
+    }
+    
+    private FeedCursor.Position decodeCursor(String cursor) {
+        try {
+            return FeedCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
     
     /**
      * Get all activities performed by a specific user
      */
-    public List<TaskActivityLog> getUserActivities(Long userId) {
-        return taskActivityLogRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public List<TaskActivityDTO> getUserActivities(Long userId) {
+        return taskActivityLogRepository.findUserFeed(userId);
     }
     
     /**
@@ -47,18 +103,154 @@ public class TaskActivityService {
     }
     
     /**
-     * Create manual activity log entry
-     * Note: Most logs are created by database triggers, but this method can be used
-     * for activities that don't have triggers (e.g., custom actions)
+     * Create manual activity log entry, written immediately.
+     * Task, label and attachment changes are recorded through the batched writer instead.
      */
     public TaskActivityLog createActivityLog(Long taskId, User user, TaskActivityLog.ActivityAction action, String changedData) {
+        return taskActivityLogRepository.save(buildActivityLog(taskId, user, action, changedData));
+    }
+    
+    /**
+     * Record an activity through the batched writer; it is written when the surrounding transaction commits
+     */
+    public void record(Long taskId, User user, ActivityAction action, Map<String, Object> changedData) {
+        taskActivityWriter.write(buildActivityLog(taskId, user, action, toJson(changedData)));
+    }
+    
+    /**
+     * Record a newly created task, and its assignment if it was created assigned
+     */
+    public void recordCreated(Task task, User user) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("title", task.getTitle());
+        data.put("description", task.getDescription());
+        data.put("status", task.getStatus());
+        data.put("priority", task.getPriority());
+        data.put("deadline", task.getDeadline());
+        data.put("assigned_to", assigneeId(task));
+        record(task.getId(), user, ActivityAction.CREATED, data);
+        
+        Long assigneeId = assigneeId(task);
+        if (assigneeId != null) {
+            Map<String, Object> assignment = new LinkedHashMap<>();
+            assignment.put("assigned_to", assigneeId);
+            assignment.put("assigned_to_name", userName(assigneeId));
+            record(task.getId(), user, ActivityAction.ASSIGNED, assignment);
+        }
+    }
+    
+    /**
+     * Record what changed on a task since the snapshot was taken
+     */
+    public void recordChanges(TaskSnapshot before, Task after, User user) {
+        Long taskId = after.getId();
+        
+        if (before.status() != after.getStatus()) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("old_status", before.status());
+            data.put("new_status", after.getStatus());
+            record(taskId, user, ActivityAction.STATUS_CHANGED, data);
+        }
+        
+        Long newAssigneeId = assigneeId(after);
+        if (!Objects.equals(before.assigneeId(), newAssigneeId)) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            if (before.assigneeId() != null) {
+                data.put("previous_assignee", before.assigneeId());
+                data.put("previous_assignee_name", userName(before.assigneeId()));
+            }
+            if (newAssigneeId != null) {
+                data.put("new_assignee", newAssigneeId);
+                data.put("new_assignee_name", userName(newAssigneeId));
+            }
+            record(taskId, user, newAssigneeId == null ? ActivityAction.UNASSIGNED : ActivityAction.ASSIGNED, data);
+        }
+        
+        if (before.priority() != after.getPriority()) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("old_priority", before.priority());
+            data.put("new_priority", after.getPriority());
+            record(taskId, user, ActivityAction.PRIORITY_CHANGED, data);
+        }
+        
+        if (!Objects.equals(before.deadline(), after.getDeadline())) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("old_deadline", before.deadline());
+            data.put("new_deadline", after.getDeadline());
+            record(taskId, user, ActivityAction.DEADLINE_CHANGED, data);
+        }
+        
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (!Objects.equals(before.title(), after.getTitle())) {
+            changes.put("title", oldAndNew(before.title(), after.getTitle()));
+        }
+        if (!Objects.equals(Objects.toString(before.description(), ""), Objects.toString(after.getDescription(), ""))) {
+            changes.put("description", oldAndNew(before.description(), after.getDescription()));
+        }
+        if (!changes.isEmpty()) {
+            record(taskId, user, ActivityAction.UPDATED, changes);
+        }
+    }
+    
+    public void recordLabel(Long taskId, User user, Label label, boolean added) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("label_id", label.getId());
+        data.put("label_name", label.getName());
+        data.put("label_color", label.getColor());
+        record(taskId, user, added ? ActivityAction.LABEL_ADDED : ActivityAction.LABEL_REMOVED, data);
+    }
+    
+    public void recordAttachment(Long taskId, User user, TaskAttachment attachment, boolean added) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("attachment_id", attachment.getId());
+        data.put("file_name", attachment.getFileName());
+        record(taskId, user, added ? ActivityAction.ATTACHMENT_ADDED : ActivityAction.ATTACHMENT_REMOVED, data);
+    }
+    
+    private TaskActivityLog buildActivityLog(Long taskId, User user, ActivityAction action, String changedData) {
         TaskActivityLog activityLog = new TaskActivityLog();
         activityLog.setTaskId(taskId);
         activityLog.setUserId(user.getId());
         activityLog.setUserName(user.getFirstName() + " " + user.getLastName());
         activityLog.setAction(action);
         activityLog.setChangedData(changedData);
-        
-        return taskActivityLogRepository.save(activityLog);
+        activityLog.setCreatedAt(LocalDateTime.now());
+        return activityLog;
+    }
+    
+    private String toJson(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize activity data", e);
+        }
+    }
+    
+    private String userName(Long userId) {
+        return userRepository.findById(userId)
+                .map(u -> u.getFirstName() + " " + u.getLastName())
+                .orElse(null);
+    }
+    
+    private static Map<String, Object> oldAndNew(Object oldValue, Object newValue) {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("old", oldValue);
+        value.put("new", newValue);
+        return value;
+    }
+    
+    private static Long assigneeId(Task task) {
+        return task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+    }
+    
+    /**
+     * The fields of a task that activity is recorded for, captured before it is changed
+     */
+    public record TaskSnapshot(String title, String description, Task.Status status,
+                               Task.Priority priority, LocalDate deadline, Long assigneeId) {
+        public static TaskSnapshot of(Task task) {
+            return new TaskSnapshot(task.getTitle(), task.getDescription(), task.getStatus(),
+                    task.getPriority(), task.getDeadline(), TaskActivityService.assigneeId(task));
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.entity.TaskActivityLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes task activity rows in JDBC batches instead of one insert per change.
+ *
+ * Entries recorded inside a transaction are collected and written together:
+ * with COMMIT durability in the same transaction just before it commits, so the log
+ * can never disagree with the task; with ASYNC durability after commit, through a
+ * bounded queue drained by a background thread. When the queue is full the caller
+ * writes its own entries rather than dropping them.
+ */
+@Slf4j
+@Component
+public class TaskActivityWriter {
+
+    public enum Durability {
+        COMMIT, ASYNC
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Durability durability;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<TaskActivityLog> queue;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public TaskActivityWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${worksphere.activity.durability:commit}") String durability,
+            @Value("${worksphere.activity.batch-size:100}") int batchSize,
+            @Value("${worksphere.activity.queue-capacity:10000}") int queueCapacity,
+            @Value("${worksphere.activity.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase());
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (durability != Durability.ASYNC) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::drainLoop, "task-activity-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queue an activity row for the current transaction, or write it now when there is none
+     */
+    public void write(TaskActivityLog entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hand(List.of(entry));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<TaskActivityLog> pending = (List<TaskActivityLog>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<TaskActivityLog> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (durability == Durability.COMMIT) {
+                        insertBatch(batch);
+                    }
+                }
+
+                @Override
+                public void afterCommit() {
+                    if (durability == Durability.ASYNC) {
+                        enqueue(batch);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TaskActivityWriter.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(entry);
+    }
+
+    private void hand(List<TaskActivityLog> entries) {
+        if (durability == Durability.ASYNC) {
+            enqueue(entries);
+        } else {
+            insertBatch(entries);
+        }
+    }
+
+    private void enqueue(List<TaskActivityLog> entries) {
+        List<TaskActivityLog> overflow = null;
+        for (TaskActivityLog entry : entries) {
+            if (!queue.offer(entry)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(entry);
+            }
+        }
+        if (overflow != null) {
+            log.warn("Activity queue full, writing {} entries on the calling thread", overflow.size());
+            insertBatch(overflow);
+        }
+    }
+
+    private void drainLoop() {
+        List<TaskActivityLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                TaskActivityLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Shutting down: fall through and drain what is left
+                running = false;
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                insertBatch(batch);
+            } catch (DataAccessException e) {
+                log.error("Failed to write {} task activity entries", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void insertBatch(List<TaskActivityLog> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getTaskId());
+            ps.setLong(2, entry.getUserId());
+            ps.setString(3, entry.getUserName());
+            ps.setString(4, entry.getAction().name());
+            ps.setString(5, entry.getChangedData());
+            ps.setTimestamp(6, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+    }
+}
@@ -7,21 +7,28 @@ import com.example.worksphere.repository.TaskAttachmentRepository;
 import com.example.worksphere.repository.TaskRepository;
 import com.example.worksphere.repository.UserRepository;
 import com.example.worksphere.repository.*;
+import com.example.worksphere.service.AttachmentStorage.StoredBlob;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Service for managing task attachments.
@@ -33,10 +40,15 @@ public class TaskAttachmentService {
     private final TaskAttachmentRepository taskAttachmentRepository;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-    private final ProjectMemberRepository projectMemberRepository;
+    private final ActingUserResolver actingUserResolver;
+    private final ProjectAccessCache projectAccessCache;
+    private final TaskActivityService taskActivityService;
     
-    // Configure this based on your storage solution
-    private final String UPLOAD_DIRECTORY = "uploads/attachments/";
+    private final AttachmentStorage attachmentStorage;
+    private final ThumbnailService thumbnailService;
+    
+    @Value("${spring.servlet.multipart.max-file-size:50MB}")
+    private DataSize maxFileSize;
     
     /**
      * Get all attachments for a task.
@@ -53,10 +65,20 @@ public class TaskAttachmentService {
     }
     
     /**
-     * Upload a new attachment for a task.
+     * Upload a new attachment for a task from a multipart request.
      */
-    @Transactional
     public TaskAttachment uploadAttachment(Long taskId, MultipartFile file, Long userId) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return uploadAttachment(taskId, file.getOriginalFilename(), file.getContentType(), content, userId);
+        }
+    }
+    
+    /**
+     * Upload a new attachment for a task, streaming the content straight to disk.
+     * Not transactional so no database connection is held while the body is read.
+     */
+    public TaskAttachment uploadAttachment(Long taskId, String fileName, String contentType,
+                                           InputStream content, Long userId) throws IOException {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         
@@ -64,33 +86,37 @@ public class TaskAttachmentService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
         }
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        // Create directory if it doesn't exist
-        Path uploadPath = Paths.get(UPLOAD_DIRECTORY);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        if (fileName == null || fileName.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File name is required");
         }
         
-        // Generate a unique file name to avoid conflicts
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID() + fileExtension;
-        
-        // Save the file
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath);
+        StoredBlob stored = attachmentStorage.store(content, maxFileSize.toBytes());
         
         // Create and save the attachment record
         TaskAttachment attachment = TaskAttachment.builder()
-                .fileName(originalFilename)
-                .filePath(UPLOAD_DIRECTORY + uniqueFilename)
+                .fileName(fileName)
+                .filePath(stored.location())
+                .fileSize(stored.size())
+                .contentType(resolveContentType(contentType, fileName))
+                .contentHash(stored.hash())
                 .task(task)
                 .uploadedBy(user)
                 .build();
         
-        return taskAttachmentRepository.save(attachment);
+        TaskAttachment saved;
+        try {
+            saved = taskAttachmentRepository.save(attachment);
+        } catch (RuntimeException e) {
+            releaseQuietly(stored.hash());
+            throw e;
+        }
+        taskActivityService.recordAttachment(taskId, user, saved, true);
+        if (saved.getContentType().startsWith("image/")) {
+            thumbnailService.generateForAttachment(attachmentStorage.locate(stored.hash()), stored.hash());
+        }
+        return saved;
     }
     
     /**
@@ -102,18 +128,39 @@ public class TaskAttachmentService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
         
         try {
-            // Delete the physical file
-            Path filePath = Paths.get(attachment.getFilePath());
-            Files.deleteIfExists(filePath);
-            
-            // Delete the database record
+            // Delete the database record, then the content if nothing else shares it
             taskAttachmentRepository.delete(attachment);
+            releaseContent(attachment);
+            userRepository.findById(userId).ifPresent(user ->
+                    taskActivityService.recordAttachment(attachment.getTask().getId(), user, attachment, false));
             return true;
         } catch (IOException e) {
             return false;
         }
     }
     
+    /**
+     * Drop the stored content of every attachment of a task that is about to be deleted;
+     * the rows themselves go with the task's ON DELETE CASCADE.
+     */
+    @Transactional
+    public void releaseTaskAttachments(Long taskId) throws IOException {
+        for (TaskAttachment attachment : taskAttachmentRepository.findByTaskId(taskId)) {
+            releaseContent(attachment);
+        }
+    }
+    
+    /**
+     * Same for every attachment of a project that is about to be deleted, whose tasks
+     * and their attachment rows go with the project's ON DELETE CASCADE.
+     */
+    @Transactional
+    public void releaseProjectAttachments(Long projectId) throws IOException {
+        for (TaskAttachment attachment : taskAttachmentRepository.findByTaskProjectId(projectId)) {
+            releaseContent(attachment);
+        }
+    }
+    
     /**
      * Find an attachment by its ID.
      */
@@ -121,6 +168,20 @@ public class TaskAttachmentService {
         return taskAttachmentRepository.findById(attachmentId);
     }
     
+    /**
+     * Get an attachment for download, if the user has access to its task.
+     */
+    public TaskAttachment getAttachment(Long attachmentId, Long userId) {
+        TaskAttachment attachment = taskAttachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+        
+        if (!hasTaskAccess(attachment.getTask(), userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+        
+        return attachment;
+    }
+    
     /**
      * Check if a user has access to a task.
      */
@@ -142,6 +203,48 @@ public class TaskAttachmentService {
     }
 
     private boolean isUserMemberOfProject(Long userId, Long projectId) {
-        return projectMemberRepository.existsByUserIdAndProjectId(userId, projectId);
+        return projectAccessCache.resolve(userId, projectId).hasMembership();
     }
+    
+    /**
+     * Only attachments stored at their blob's location hold a blob reference. Older ones, including
+     * streamed uploads that recorded a hash but kept their own file, just have that file removed.
+     * Either way nothing is deleted from disk until the transaction commits.
+     */
+    private void releaseContent(TaskAttachment attachment) throws IOException {
+        String hash = attachment.getContentHash();
+        if (hash != null && attachment.getFilePath().equals(attachmentStorage.locate(hash).toString())) {
+            attachmentStorage.release(hash);
+            return;
+        }
+        Path file = Paths.get(attachment.getFilePath());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Unreferenced once the row is gone; left for an orphan sweep
+                }
+            }
+        });
+    }
+    
+    private void releaseQuietly(String hash) {
+        try {
+            attachmentStorage.release(hash);
+        } catch (IOException | RuntimeException e) {
+            // The blob stays referenced; an orphaned copy is better than a missing one
+        }
+    }
+    
+    private static String resolveContentType(String declared, String fileName) {
+        if (declared != null && !declared.isBlank()
+                && !declared.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return declared;
+        }
+        String guessed = URLConnection.guessContentTypeFromName(fileName);
+        return guessed != null ? guessed : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+    
 }
\ No newline at end of file
@@ -1,5 +1,10 @@
 package com.example.worksphere.service;
 
+import com.example.worksphere.dto.KanbanEvent;
+import com.example.worksphere.dto.ProjectAccess;
+import com.example.worksphere.dto.ProjectTaskStatsDTO;
+import com.example.worksphere.dto.TaskFilter;
+import com.example.worksphere.dto.TaskSummaryDTO;
 import com.example.worksphere.entity.Task;
 import com.example.worksphere.entity.Task.Status;
 import com.example.worksphere.entity.Task.Priority;
@@ -8,34 +13,44 @@ import com.example.worksphere.entity.Project;
 import com.example.worksphere.entity.Label;
 import com.example.worksphere.repository.TaskRepository;
 import com.example.worksphere.repository.UserRepository;
-import com.example.worksphere.repository.ProjectRepository;
-import com.example.worksphere.repository.ProjectMemberRepository;
 import com.example.worksphere.repository.LabelRepository;
+import com.example.worksphere.repository.TaskKeyset;
+import com.example.worksphere.repository.TaskSpecifications;
+import com.example.worksphere.service.TaskActivityService.TaskSnapshot;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+    // Longer queries are cut here; each extra required term only narrows the match
+    private static final int MAX_SEARCH_TERMS = 8;
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -43,28 +58,40 @@ public class TaskService {
     private UserRepository userRepository;
 
     @Autowired
-    private ProjectRepository projectRepository;
+    private ProjectAccessCache projectAccessCache;
+    
+    @Autowired
+    private ActingUserResolver actingUserResolver;
+    
+    @Autowired
+    private ProjectTaskCounter projectTaskCounter;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    private ProjectMemberRepository projectMemberRepository;
+    private NotificationService notificationService;
     
     @Autowired
     private LabelRepository labelRepository;
+    
+    @Autowired
+    private TaskActivityService taskActivityService;
+    
+    @Autowired
+    private TaskAttachmentService taskAttachmentService;
 
     /**
      * Create a new task
      */
     @Transactional
     public Task createTask(Task task, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
 
-        Project project = projectRepository.findById(task.getProject().getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        Long projectId = task.getProject().getId();
 
         // Check if user has access to this project
-        if (!isUserMemberOfProject(user.getId(), project.getId()) && 
-            !project.getOwner().getId().equals(user.getId())) {
+        if (!hasProjectAccess(user.getId(), projectId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                 "You don't have permission to create tasks in this project");
         }
@@ -75,8 +102,7 @@ public class TaskService {
             User assignedUser = userRepository.findById(task.getAssignedTo().getId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assigned user not found"));
         
-            if (!isUserMemberOfProject(assignedUser.getId(), project.getId()) &&
-                !project.getOwner().getId().equals(assignedUser.getId())) {
+            if (!hasProjectAccess(assignedUser.getId(), projectId)) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
                     "Assigned user is not a member of this project");
             }
@@ -103,111 +129,70 @@ public class TaskService {
         LocalDateTime now = LocalDateTime.now();
         task.setCreatedAt(now);
         task.setUpdatedAt(now);
+        indexLabels(task);
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        projectTaskCounter.taskAdded(saved);
+        taskActivityService.recordCreated(saved, user);
+        for (Label label : saved.getLabels()) {
+            taskActivityService.recordLabel(saved.getId(), user, label, true);
+        }
+        notifyNewAssignee(null, saved);
+        return saved;
     }
 
     /**
-     * Get all tasks with filtering options
+     * Get all tasks with filtering options.
+     * When a cursor is given the page number is ignored and the slice starts after the cursor.
      */
-    public List<Task> getAllTasks(
-            Long projectId, 
-            Status status,
-            Priority priority,
-            Long assignedToId,
+    public Slice<TaskSummaryDTO> getAllTasks(
+            TaskFilter filter,
             int page, 
             int size, 
             String sortBy, 
             String sortDir,
+            String after,
             Long userId) {
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        
-        // Create pageable object
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        User user = actingUserResolver.resolve(userId);
         
-        // Apply filters
-        if (projectId != null) {
+        Specification<Task> spec;
+        if (filter.getProjectId() != null) {
             // Check if user has access to the project
-            Project project = projectRepository.findById(projectId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
-            
-            if (!isUserMemberOfProject(user.getId(), project.getId()) && 
-                !project.getOwner().getId().equals(user.getId())) {
+            if (!hasProjectAccess(user.getId(), filter.getProjectId())) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                     "You don't have permission to view tasks in this project");
             }
-            
-            // Apply all filters
-            if (status != null && priority != null && assignedToId != null) {
-                return taskRepository.findByProjectIdAndStatusAndPriorityAndAssignedToId(
-                    projectId, status, priority, assignedToId, pageable).getContent();
-            } else if (status != null && priority != null) {
-                return taskRepository.findByProjectIdAndStatusAndPriority(
-                    projectId, status, priority, pageable).getContent();
-            } else if (status != null && assignedToId != null) {
-                return taskRepository.findByProjectIdAndStatusAndAssignedToId(
-                    projectId, status, assignedToId, pageable).getContent();
-            } else if (priority != null && assignedToId != null) {
-                return taskRepository.findByProjectIdAndPriorityAndAssignedToId(
-                    projectId, priority, assignedToId, pageable).getContent();
-            } else if (status != null) {
-                return taskRepository.findByProjectIdAndStatus(projectId, status, pageable).getContent();
-            } else if (priority != null) {
-                return taskRepository.findByProjectIdAndPriority(projectId, priority, pageable).getContent();
-            } else if (assignedToId != null) {
-                return taskRepository.findByProjectIdAndAssignedToId(projectId, assignedToId, pageable).getContent();
-            } else {
-                return taskRepository.findByProjectId(projectId, pageable).getContent();
-            }
-        }
-        
-        // If no project filter, return only tasks from projects the user is a member of
-        List<Long> accessibleProjectIds = getAccessibleProjectIds(user.getId());
-        
-        // Apply remaining filters to accessible projects
-        if (status != null && priority != null && assignedToId != null) {
-            return taskRepository.findByProjectIdInAndStatusAndPriorityAndAssignedToId(
-                accessibleProjectIds, status, priority, assignedToId, pageable).getContent();
-        } else if (status != null && priority != null) {
-            return taskRepository.findByProjectIdInAndStatusAndPriority(
-                accessibleProjectIds, status, priority, pageable).getContent();
-        } else if (status != null && assignedToId != null) {
-            return taskRepository.findByProjectIdInAndStatusAndAssignedToId(
-                accessibleProjectIds, status, assignedToId, pageable).getContent();
-        } else if (priority != null && assignedToId != null) {
-            return taskRepository.findByProjectIdInAndPriorityAndAssignedToId(
-                accessibleProjectIds, priority, assignedToId, pageable).getContent();
-        } else if (status != null) {
-            return taskRepository.findByProjectIdInAndStatus(accessibleProjectIds, status, pageable).getContent();
-        } else if (priority != null) {
-            return taskRepository.findByProjectIdInAndPriority(accessibleProjectIds, priority, pageable).getContent();
-        } else if (assignedToId != null) {
-            return taskRepository.findByProjectIdInAndAssignedToId(accessibleProjectIds, assignedToId, pageable).getContent();
+            spec = TaskSpecifications.inProject(filter.getProjectId());
         } else {
-            return taskRepository.findByProjectIdIn(accessibleProjectIds, pageable).getContent();
+            // If no project filter, return only tasks from projects the user has access to
+            spec = TaskSpecifications.accessibleTo(user.getId());
         }
+        
+        spec = spec.and(TaskSpecifications.hasStatus(filter.getStatus()))
+                .and(TaskSpecifications.hasPriority(filter.getPriority()))
+                .and(TaskSpecifications.assignedTo(filter.getAssignedToId()))
+                .and(TaskSpecifications.createdBy(filter.getCreatedById()))
+                .and(TaskSpecifications.deadlineOnOrAfter(filter.getDeadlineFrom()))
+                .and(TaskSpecifications.deadlineOnOrBefore(filter.getDeadlineTo()))
+                .and(TaskSpecifications.hasLabel(filter.getLabel()));
+        
+        return findTaskSlice(spec, page, size, sortBy, sortDir, after);
     }
 
     /**
      * Get task by ID if user has access
      */
     public Optional<Task> getTaskById(Long id, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Optional<Task> taskOpt = taskRepository.findById(id);
+        Optional<Task> taskOpt = taskRepository.findDetailById(id);
         
         if (taskOpt.isPresent()) {
             Task task = taskOpt.get();
-            Project project = task.getProject();
             
             // Check if user has access to this project
-            if (!isUserMemberOfProject(user.getId(), project.getId()) && 
-                !project.getOwner().getId().equals(user.getId())) {
+            if (!hasProjectAccess(user.getId(), task.getProject().getId())) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                     "You don't have permission to view this task");
             }
@@ -223,11 +208,9 @@ public class TaskService {
      */
     @Transactional
     public Task updateTask(Long id, Task taskDetails, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        Task task = findTaskForUpdate(id);
         
         Project project = task.getProject();
         
@@ -245,13 +228,16 @@ public class TaskService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assigned user not found"));
             
             // Check if assignee is a member of project
-            if (!isUserMemberOfProject(assignedUser.getId(), project.getId()) && 
-                !project.getOwner().getId().equals(assignedUser.getId())) {
+            if (!hasProjectAccess(assignedUser.getId(), project.getId())) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
                     "Assigned user is not a member of this project");
             }
         }
         
+        Long previousAssigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        TaskSnapshot before = TaskSnapshot.of(task);
+        Set<Label> previousLabels = new HashSet<>(task.getLabels());
+        
         // Update task fields
         task.setTitle(taskDetails.getTitle());
         task.setDescription(taskDetails.getDescription());
@@ -268,9 +254,19 @@ public class TaskService {
         // Handle labels if provided
         if (taskDetails.getLabels() != null && !taskDetails.getLabels().isEmpty()) {
             task.setLabels(taskDetails.getLabels());
+            indexLabels(task);
         }
         
-        return taskRepository.save(task);
+        if (task.getStatus() != before.status()) {
+            publishStatusChange(task, userId);
+        }
+        Task saved = taskRepository.save(task);
+        projectTaskCounter.taskChanged(project.getId(), before.status(), before.priority(),
+                saved.getStatus(), saved.getPriority());
+        taskActivityService.recordChanges(before, saved, user);
+        recordLabelChanges(saved, previousLabels, user);
+        notifyNewAssignee(previousAssigneeId, saved);
+        return saved;
     }
 
     /**
@@ -278,10 +274,10 @@ public class TaskService {
      */
     @Transactional
     public boolean deleteTask(Long id, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
+        // Locked so a concurrent delete or status change cannot count this task out twice
+        Task task = taskRepository.findLockedById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         
         Project project = task.getProject();
@@ -293,6 +289,15 @@ public class TaskService {
                 "You don't have permission to delete this task");
         }
         
+        // Attachment rows cascade away with the task; their shared content is released here
+        try {
+            taskAttachmentService.releaseTaskAttachments(id);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not remove task attachments");
+        }
+        
+        // No DELETED activity: the log rows cascade away with the task
+        projectTaskCounter.taskRemoved(task);
         taskRepository.delete(task);
         return true;
     }
@@ -300,88 +305,73 @@ public class TaskService {
     /**
      * Get tasks by project ID
      */
-    public List<Task> getTasksByProject(Long projectId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    public List<TaskSummaryDTO> getTasksByProject(Long projectId, Long userId) {
+        User user = actingUserResolver.resolve(userId);
         
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        // Check if user has access to this project
+        if (!hasProjectAccess(user.getId(), projectId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
+                "You don't have permission to view tasks in this project");
+        }
+        
+        return taskRepository.findSummaries(TaskSpecifications.inProject(projectId), Sort.by("id"));
+    }
+
+    /**
+     * Task counts by status and priority, plus overdue, for a project dashboard
+     */
+    public ProjectTaskStatsDTO getProjectTaskStats(Long projectId, Long userId) {
+        User user = actingUserResolver.resolve(userId);
         
         // Check if user has access to this project
-        if (!isUserMemberOfProject(user.getId(), project.getId()) && 
-            !project.getOwner().getId().equals(user.getId())) {
+        if (!hasProjectAccess(user.getId(), projectId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
                 "You don't have permission to view tasks in this project");
         }
         
-        return taskRepository.findByProjectId(projectId);
+        return projectTaskCounter.getStats(projectId);
     }
 
     /**
      * Get tasks assigned to a user
      */
-    public List<Task> getTasksAssignedToUser(Long userId, 
+    public Slice<TaskSummaryDTO> getTasksAssignedToUser(Long userId, 
                                           Status status,
                                           Priority priority,
                                           int page, 
                                           int size, 
                                           String sortBy, 
-                                          String sortDir) {
+                                          String sortDir,
+                                          String after) {
         // Fetch the user by userId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        
-        // Create pageable object with sorting direction
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                    Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        // Apply filters based on status and priority
-        if (status != null && priority != null) {
-            // Both status and priority filters
-            return taskRepository.findByAssignedToIdAndStatusAndPriority(user.getId(), status, priority, pageable).getContent();
-        } else if (status != null) {
-            // Only status filter
-            return taskRepository.findByAssignedToIdAndStatus(user.getId(), status, pageable).getContent();
-        } else if (priority != null) {
-            // Only priority filter
-            return taskRepository.findByAssignedToIdAndPriority(user.getId(), priority, pageable).getContent();
-        } else {
-            // No filters, just userId-based query
-            return taskRepository.findByAssignedToId(user.getId(), pageable).getContent();
-        }
+        User user = actingUserResolver.resolve(userId);
+        
+        Specification<Task> spec = TaskSpecifications.assignedTo(user.getId())
+                .and(TaskSpecifications.hasStatus(status))
+                .and(TaskSpecifications.hasPriority(priority));
+        
+        return findTaskSlice(spec, page, size, sortBy, sortDir, after);
     }
 
 
     /**
      * Get tasks created by a user
      */
-    public List<Task> getTasksCreatedByUser(Long userId, 
+    public Slice<TaskSummaryDTO> getTasksCreatedByUser(Long userId, 
                                          Status status,
                                          Priority priority,
                                          int page, 
                                          int size, 
                                          String sortBy, 
-                                         String sortDir) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-        
-        // Create pageable object
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        
-        // Apply filters
-        if (status != null && priority != null) {
-            return taskRepository.findByCreatedByIdAndStatusAndPriority(
-                user.getId(), status, priority, pageable).getContent();
-        } else if (status != null) {
-            return taskRepository.findByCreatedByIdAndStatus(user.getId(), status, pageable).getContent();
-        } else if (priority != null) {
-            return taskRepository.findByCreatedByIdAndPriority(user.getId(), priority, pageable).getContent();
-        } else {
-            return taskRepository.findByCreatedById(user.getId(), pageable).getContent();
-        }
+                                         String sortDir,
+                                         String after) {
+        User user = actingUserResolver.resolve(userId);
+        
+        Specification<Task> spec = TaskSpecifications.createdBy(user.getId())
+                .and(TaskSpecifications.hasStatus(status))
+                .and(TaskSpecifications.hasPriority(priority));
+        
+        return findTaskSlice(spec, page, size, sortBy, sortDir, after);
     }
 
     /**
@@ -389,11 +379,9 @@ public class TaskService {
      */
     @Transactional
     public Task updateTaskStatus(Long taskId, Status status, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        Task task = findTaskForUpdate(taskId);
 
         Project project = task.getProject();
 
@@ -406,10 +394,16 @@ public class TaskService {
                     "Only the project owner or the assigned user can update this task");
         }
 
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setStatus(status);
         task.setUpdatedAt(LocalDateTime.now());
 
-        return taskRepository.save(task);
+        publishStatusChange(task, userId);
+        Task saved = taskRepository.save(task);
+        projectTaskCounter.taskChanged(project.getId(), before.status(), before.priority(),
+                saved.getStatus(), saved.getPriority());
+        taskActivityService.recordChanges(before, saved, user);
+        return saved;
     }
 
 
@@ -418,10 +412,9 @@ public class TaskService {
      */
     @Transactional
     public Task assignTask(Long id, Long assigneeId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findDetailById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         
         Project project = task.getProject();
@@ -439,10 +432,16 @@ public class TaskService {
         
         
         
+        Long previousAssigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        
         // Update assignee
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setAssignedTo(assignee);
         task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskActivityService.recordChanges(before, saved, user);
+        notifyNewAssignee(previousAssigneeId, saved);
+        return saved;
     }
 
     /**
@@ -450,10 +449,9 @@ public class TaskService {
      */
     @Transactional
     public Task unassignTask(Long id, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findDetailById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         
         Project project = task.getProject();
@@ -466,9 +464,12 @@ public class TaskService {
         }
         
         // Unassign
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setAssignedTo(null);
         task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskActivityService.recordChanges(before, saved, user);
+        return saved;
     }
 
     /**
@@ -476,11 +477,9 @@ public class TaskService {
      */
     @Transactional
     public Task updateTaskPriority(Long id, Priority priority, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        Task task = findTaskForUpdate(id);
         
         Project project = task.getProject();
         
@@ -493,9 +492,14 @@ public class TaskService {
         }
         
         // Update priority
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setPriority(priority);
         task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        projectTaskCounter.taskChanged(project.getId(), before.status(), before.priority(),
+                saved.getStatus(), saved.getPriority());
+        taskActivityService.recordChanges(before, saved, user);
+        return saved;
     }
 
     /**
@@ -503,10 +507,9 @@ public class TaskService {
      */
     @Transactional
     public Task addLabelsToTask(Long taskId, Set<Label> labels, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
     
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findDetailById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
     
         Project project = task.getProject();
@@ -531,7 +534,9 @@ public class TaskService {
                         .createdAt(LocalDateTime.now())
                         .task(task)
                         .build();
-                validLabels.add(labelRepository.save(newLabel));
+                Label savedLabel = labelRepository.save(newLabel);
+                taskActivityService.recordLabel(taskId, user, savedLabel, true);
+                validLabels.add(savedLabel);
             }
         }
     
@@ -541,6 +546,7 @@ public class TaskService {
         }
         task.getLabels().addAll(validLabels);
         task.setUpdatedAt(LocalDateTime.now());
+        indexLabels(task);
     
         return taskRepository.save(task);
     }
@@ -551,10 +557,9 @@ public class TaskService {
      */
     @Transactional
     public Task removeLabelsFromTask(Long id, Set<Label> labels, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findDetailById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
 
         Project project = task.getProject();
@@ -568,8 +573,15 @@ public class TaskService {
         Set<Long> labelIdsToRemove = labels.stream()
             .map(label -> label.getId())
             .collect(Collectors.toSet());
-        task.getLabels().removeIf(label -> labelIdsToRemove.contains(label.getId()));
+        task.getLabels().removeIf(label -> {
+            if (!labelIdsToRemove.contains(label.getId())) {
+                return false;
+            }
+            taskActivityService.recordLabel(id, user, label, false);
+            return true;
+        });
         task.setUpdatedAt(LocalDateTime.now());
+        indexLabels(task);
 
         return taskRepository.save(task);
     }
@@ -579,10 +591,9 @@ public class TaskService {
      */
     @Transactional
     public Task setTaskDeadline(Long id, String deadlineStr, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = actingUserResolver.resolve(userId);
         
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findDetailById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
         
         Project project = task.getProject();
@@ -611,52 +622,177 @@ public class TaskService {
         }
         
         // Update deadline
+        TaskSnapshot before = TaskSnapshot.of(task);
         task.setDeadline(deadline);
         task.setUpdatedAt(LocalDateTime.now());
         
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskActivityService.recordChanges(before, saved, user);
+        return saved;
     }
 
     /**
-     * Helper method to check if a user is a member of a project
+     * Full-text search over title, description and label names, best matches first.
+     * Every word is matched as a prefix and all of them must appear, so "log bug"
+     * finds "Fix Login Bugs". Only tasks in projects the user can see are returned.
      */
-    private boolean isUserMemberOfProject(Long userId, Long projectId) {
-        return projectMemberRepository.existsByUserIdAndProjectId(userId, projectId);
+    public List<TaskSummaryDTO> searchTasks(String query, Long projectId, int limit, Long userId) {
+        User user = actingUserResolver.resolve(userId);
+        
+        if (projectId != null && !hasProjectAccess(user.getId(), projectId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
+                "You don't have permission to view tasks in this project");
+        }
+        
+        String booleanQuery = toBooleanQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return List.of();
+        }
+        
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<Long> ids = taskRepository.searchIds(booleanQuery, user.getId(), projectId, cappedLimit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        // The summaries come back in id order; put them back in rank order
+        Map<Long, TaskSummaryDTO> byId = taskRepository.findSummaries(TaskSpecifications.withIds(ids), Sort.unsorted())
+                .stream()
+                .collect(Collectors.toMap(TaskSummaryDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Turn free text into a MySQL boolean-mode query: each word required and matched as a prefix.
+     * Operator characters are dropped, so user input cannot change the query's meaning.
+     */
+    private static String toBooleanQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(query.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Copy label names into the column the full-text index covers
+     */
+    private static void indexLabels(Task task) {
+        task.setSearchLabels(task.getLabels() == null ? null : task.getLabels().stream()
+                .map(Label::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" ")));
+    }
+
+    /**
+     * Label activity for a replaced label set; labels are matched by id, new ones have none yet
+     */
+    private void recordLabelChanges(Task task, Set<Label> previousLabels, User user) {
+        Set<Long> previousIds = previousLabels.stream().map(Label::getId).collect(Collectors.toSet());
+        Set<Long> currentIds = task.getLabels().stream()
+                .map(Label::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        for (Label label : previousLabels) {
+            if (!currentIds.contains(label.getId())) {
+                taskActivityService.recordLabel(task.getId(), user, label, false);
+            }
+        }
+        for (Label label : task.getLabels()) {
+            if (label.getId() == null || !previousIds.contains(label.getId())) {
+                taskActivityService.recordLabel(task.getId(), user, label, true);
+            }
+        }
+    }
+
+    /**
+     * Load a task whose status or priority may change, holding its row lock until commit.
+     * The project counts move by the difference from the old values, so two concurrent
+     * changes must not both start from the same ones.
+     */
+    private Task findTaskForUpdate(Long id) {
+        taskRepository.findLockedById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        // Same instance, now with everything its JSON includes
+        return taskRepository.findDetailById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+    }
+
+    /**
+     * Boards showing this task pick the change up from the project topic after commit
+     */
+    private void publishStatusChange(Task task, Long userId) {
+        eventPublisher.publishEvent(KanbanEvent.builder()
+                .type(KanbanEvent.Type.TASK_STATUS_CHANGED)
+                .projectId(task.getProject().getId())
+                .taskId(task.getId())
+                .payload(task.getStatus())
+                .actorId(userId)
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Helper method to check if a user owns or is a member of a project
+     */
+    private boolean hasProjectAccess(Long userId, Long projectId) {
+        ProjectAccess access = projectAccessCache.resolve(userId, projectId);
+        return access.isOwner(userId) || access.hasMembership();
+    }
+    
+    /**
+     * The assignment triggers notify a task's new assignee; let them know their feed changed
+     */
+    private void notifyNewAssignee(Long previousAssigneeId, Task task) {
+        Long assigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        if (assigneeId != null && !assigneeId.equals(previousAssigneeId)) {
+            notificationService.notificationsChanged(assigneeId);
+        }
     }
     
     /**
-     * Helper method to get IDs of all projects a user has access to
+     * Cursor pointing past the last task of a slice, or null when there is nothing further
+     * or the sort field cannot be paged by cursor
      */
-    private List<Long> getAccessibleProjectIds(Long userId) {
-        // Projects the user is a member of
-        List<Project> memberProjects = projectMemberRepository.getProjectsByUserId(userId);
-        List<Long> memberProjectIds = memberProjects.stream()
-            .map(Project::getId)
-            .toList();
-
-        // Projects the user owns
-        List<Long> ownedProjectIds = projectRepository.findByOwnerId(userId)
-            .stream()
-            .map(Project::getId)
-            .toList();
-
-        // Combine both lists
-        List<Long> accessibleProjectIds = new ArrayList<>(memberProjectIds);
-        accessibleProjectIds.addAll(ownedProjectIds);
-        return accessibleProjectIds;
+    public String nextCursor(Slice<TaskSummaryDTO> slice, String sortBy, String sortDir) {
+        if (!slice.hasNext() || !slice.hasContent() || !TaskKeyset.supports(sortBy)) {
+            return null;
+        }
+        List<TaskSummaryDTO> content = slice.getContent();
+        return TaskKeyset.encode(content.get(content.size() - 1), sortBy, sortDir.equalsIgnoreCase("desc"));
     }
 
-    public List<Long> getTaskIdsByProjectId(Long projectId) {
-        // Option 1: If you want to fetch complete task entities and extract IDs
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return tasks.stream()
-                .map(Task::getId)
-                .collect(Collectors.toList());
+    /**
+     * Helper method to run a list query by page number or, when a cursor is given, by keyset
+     */
+    private Slice<TaskSummaryDTO> findTaskSlice(Specification<Task> spec, int page, int size,
+                                                String sortBy, String sortDir, String after) {
+        boolean desc = sortDir.equalsIgnoreCase("desc");
+        Sort sort = desc ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        // Tie-break on id so rows with equal sort keys keep a stable order across pages
+        if (!sortBy.equals("id")) {
+            sort = sort.and(desc ? Sort.by("id").descending() : Sort.by("id").ascending());
+        }
+        
+        if (after == null || after.isBlank()) {
+            return taskRepository.findSummarySlice(spec, PageRequest.of(page, size, sort));
+        }
         
-        /* 
-        // Option 2: More efficient query that only fetches IDs
-        // Uncomment this and comment out the above code if you add this method to your repository
-        // return taskRepository.findTaskIdsByProjectId(projectId);
-        */
+        if (!TaskKeyset.supports(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                "Cursor paging is not supported when sorting by " + sortBy);
+        }
+        try {
+            spec = spec.and(TaskKeyset.after(after, sortBy, desc));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + e.getMessage());
+        }
+        return taskRepository.findSummarySlice(spec, PageRequest.of(0, size, sort));
     }
 }
\ No newline at end of file
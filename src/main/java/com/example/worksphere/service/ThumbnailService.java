@@ -0,0 +1,172 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.config.AsyncConfig;
+import com.example.worksphere.dto.Thumbnails;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Renders fixed-size PNG thumbnails of uploaded images in the background.
+ *
+ * Thumbnails are named after the SHA-256 of the source; identical images share one set.
+ * Profile picture thumbnails sit under the public uploads/thumbnails and are served as
+ * immutable. Attachment previews go to their own directory, which is not mapped as a static
+ * resource, and are only read back through the access-checked attachment endpoint.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private static final Path AVATAR_DIRECTORY = Paths.get("uploads/thumbnails");
+    // Refuse to decode anything larger; guards against decompression bombs
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private final Path attachmentDirectory;
+
+    public ThumbnailService(
+            @Value("${worksphere.attachments.thumbnail-root:uploads/attachment-thumbnails}") String attachmentDirectory) {
+        this.attachmentDirectory = Paths.get(attachmentDirectory);
+    }
+
+    /**
+     * Render every thumbnail size of a profile picture that does not have them yet
+     */
+    @Async(AsyncConfig.THUMBNAIL_EXECUTOR)
+    public void generateForAvatar(Path source, String hash) {
+        render(source, hash, AVATAR_DIRECTORY);
+    }
+
+    /**
+     * Render every thumbnail size of an image attachment that does not have them yet
+     */
+    @Async(AsyncConfig.THUMBNAIL_EXECUTOR)
+    public void generateForAttachment(Path source, String hash) {
+        render(source, hash, attachmentDirectory);
+    }
+
+    /**
+     * Rendered preview of an attachment, if it exists yet
+     */
+    public Optional<Path> findAttachmentThumbnail(String hash, int size) {
+        Path thumbnail = target(attachmentDirectory, hash, size);
+        return Files.isReadable(thumbnail) ? Optional.of(thumbnail) : Optional.empty();
+    }
+
+    /**
+     * Formats ImageIO cannot read are skipped
+     */
+    private void render(Path source, String hash, Path directory) {
+        int[] sizes = Thumbnails.SIZES;
+        if (Files.exists(target(directory, hash, sizes[sizes.length - 1]))) {
+            return;
+        }
+        try {
+            BufferedImage image = read(source, sizes[sizes.length - 1]);
+            if (image == null) {
+                return;
+            }
+            Files.createDirectories(directory);
+            for (int size : sizes) {
+                write(scale(image, size), directory, target(directory, hash, size));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not create thumbnails for {}", source, e);
+        }
+    }
+
+    private static Path target(Path directory, String hash, int size) {
+        return directory.resolve(hash + "-" + size + ".png");
+    }
+
+    /**
+     * Decode with subsampling so no more pixels are held than the largest thumbnail needs
+     */
+    private static BufferedImage read(Path source, int largestSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.warn("Skipping thumbnails for {}: {}x{} is too large", source, width, height);
+                    return null;
+                }
+                // Keep at least twice the target resolution for a clean downscale
+                int step = Math.max(1, Math.min(width, height) / (largestSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fit inside a size x size box, halving repeatedly first so bilinear filtering does not alias
+     */
+    private static BufferedImage scale(BufferedImage source, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Write through a temp file so a half-written thumbnail is never served
+     */
+    private static void write(BufferedImage image, Path directory, Path target) throws IOException {
+        Path temp = directory.resolve(UUID.randomUUID() + ".part");
+        try {
+            ImageIO.write(image, "png", temp.toFile());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.repository.NotificationRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory unread notification count per user.
+ *
+ * A user's count is read from the database the first time it is asked for and then kept
+ * up to date by NotificationService events. Counts are re-read after a while anyway,
+ * since the notification triggers in the database can insert rows behind our back.
+ * ConcurrentHashMap locks per bin, so updates for different users do not contend.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final int MAX_USERS = 50_000;
+
+    private final NotificationRepository notificationRepository;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<Long, Count> counts = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(
+            NotificationRepository notificationRepository,
+            @Value("${worksphere.notifications.unread-count-ttl-seconds:300}") long ttlSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Current unread count, loading it from the database if it is missing or stale
+     */
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        Count count = counts.get(userId);
+        if (count == null || count.loadedAt + ttlMillis <= now) {
+            if (counts.size() >= MAX_USERS) {
+                counts.clear();
+            }
+            count = counts.compute(userId, (id, current) ->
+                    current == null || current.loadedAt + ttlMillis <= now ? load(id, now) : current);
+        }
+        return count.value.get();
+    }
+
+    public long increment(Long userId) {
+        Count count = counts.computeIfPresent(userId, (id, current) -> {
+            current.value.incrementAndGet();
+            return current;
+        });
+        return count != null ? count.value.get() : get(userId);
+    }
+
+    public long decrement(Long userId) {
+        Count count = counts.computeIfPresent(userId, (id, current) -> {
+            current.value.updateAndGet(value -> Math.max(0, value - 1));
+            return current;
+        });
+        return count != null ? count.value.get() : get(userId);
+    }
+
+    public long reset(Long userId) {
+        Count count = counts.computeIfPresent(userId, (id, current) -> {
+            current.value.set(0);
+            return current;
+        });
+        return count != null ? count.value.get() : get(userId);
+    }
+
+    /**
+     * Drop the cached count and read it again
+     */
+    public long reload(Long userId) {
+        counts.remove(userId);
+        return get(userId);
+    }
+
+    private Count load(Long userId, long now) {
+        return new Count(new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(userId)), now);
+    }
+
+    private record Count(AtomicLong value, long loadedAt) {
+    }
+}
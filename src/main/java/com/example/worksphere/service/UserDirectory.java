@@ -0,0 +1,119 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.dto.UserSummaryDTO;
+import com.example.worksphere.entity.User;
+import com.example.worksphere.repository.UserRepository;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index of users by name and email, for typeahead pickers.
+ *
+ * Each user is indexed under their full name, last name and email, lower-cased, in a
+ * sorted map; a prefix lookup is a range scan over that map, so shorter completions
+ * come first. The index is read from the database on first use and kept current by
+ * UserService after each committed change.
+ */
+@Component
+public class UserDirectory {
+
+    // Keys are "<token>\0<userId>", so one token can point at many users
+    private static final char ID_SEPARATOR = '\0';
+
+    private final UserRepository userRepository;
+    private final Map<Long, UserSummaryDTO> users = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Long> index = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+
+    public UserDirectory(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Users whose name, last name or email starts with the query, at most {@code limit} of them
+     */
+    public List<UserSummaryDTO> search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        ensureLoaded();
+
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            ids.add(id);
+            if (ids.size() >= limit) {
+                break;
+            }
+        }
+        return ids.stream().map(users::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Re-index a user once the surrounding transaction commits, or now when there is none
+     */
+    public void update(User user) {
+        UserSummaryDTO summary = new UserSummaryDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(summary);
+                }
+            });
+        } else {
+            put(summary);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            // Users re-indexed before the first search are already current; keep them
+            for (UserSummaryDTO summary : userRepository.findAllSummaries()) {
+                if (users.putIfAbsent(summary.getId(), summary) == null) {
+                    keys(summary).forEach(key -> index.put(key, summary.getId()));
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private synchronized void put(UserSummaryDTO summary) {
+        UserSummaryDTO previous = users.put(summary.getId(), summary);
+        if (previous != null) {
+            keys(previous).forEach(index::remove);
+        }
+        keys(summary).forEach(key -> index.put(key, summary.getId()));
+    }
+
+    private static List<String> keys(UserSummaryDTO summary) {
+        return List.of(summary.getName(), summary.getLastName(), summary.getEmail()).stream()
+                .filter(Objects::nonNull)
+                .map(UserDirectory::normalize)
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .map(token -> token + ID_SEPARATOR + summary.getId())
+                .toList();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
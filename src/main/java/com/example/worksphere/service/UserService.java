@@ -1,28 +1,53 @@
 package com.example.worksphere.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import com.example.worksphere.entity.User;
 import com.example.worksphere.repository.UserRepository;
 import com.example.worksphere.dto.UpdateProfileDto;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.worksphere.dto.AuthenticatedUser;
+import com.example.worksphere.dto.UserSummaryDTO;
+import com.example.worksphere.exception.ServerBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import java.nio.file.Path;
+@Slf4j
 @Service
 public class UserService {
-    private final String uploadDir = "uploads/profile_pictures/";
+    private final String uploadDir = "uploads/avatars/";
+    private static final long MAX_PICTURE_BYTES = 5L * 1024 * 1024;
+    private static final int MAX_SEARCH_RESULTS = 25;
+    // A BCrypt hash, with or without the {bcrypt} id prefix
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^(\\{\\w+})?\\$2[aby]?\\$\\d{2}\\$.{53}$");
+    private static final Map<String, String> PICTURE_EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp");
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder; // dont use BcryptPasswordEncoder
+    private final PasswordHasher passwordHasher;
+    private final ThumbnailService thumbnailService;
+    private final UserDirectory userDirectory;
+    private final AccessTokenService accessTokenService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher, ThumbnailService thumbnailService,
+                       UserDirectory userDirectory, AccessTokenService accessTokenService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.thumbnailService = thumbnailService;
+        this.userDirectory = userDirectory;
+        this.accessTokenService = accessTokenService;
     }
 
     // sign up
@@ -35,29 +60,96 @@ public class UserService {
                 .firstName(firstName)
                 .lastName(lastName)
                 .email(email)
-                .password(passwordEncoder.encode(password))
+                .password(passwordHasher.encode(password).join())
                 .dob(dob)
                 .gender(gender != null ? gender : User.Gender.OTHER)
                 .role(role != null ? role : User.Role.USER) 
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return userRepository.save(newUser);
+        User saved = userRepository.save(newUser);
+        userDirectory.update(saved);
+        return saved;
     }
 
-    // login
-    public User loginUser(String email, String password) {
+    /**
+     * Verify credentials on the hashing pool. A hash written with an older algorithm or cost
+     * is replaced in the background once the password is known to be right.
+     * @throws ServerBusyException if the hashing queue is full
+     */
+    public CompletableFuture<User> loginUser(String email, String password) {
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found.");
         }
 
         User user = userOpt.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new RuntimeException("Invalid credentials.");
-        }
+        String storedHash = user.getPassword();
+        return passwordHasher.matches(password, storedHash).thenApply(matches -> {
+            if (!matches) {
+                throw new RuntimeException("Invalid credentials.");
+            }
+            if (passwordHasher.upgradeEncoding(storedHash)) {
+                upgradePasswordHash(user.getId(), password, storedHash);
+            }
+            return user;
+        });
+    }
 
-        return user; 
+    /**
+     * Check a user's current password, e.g. before a credential change
+     * @throws ServerBusyException if the hashing queue is full
+     */
+    public CompletableFuture<Boolean> checkPassword(User user, String password) {
+        return passwordHasher.matches(password, user.getPassword());
+    }
+
+    /**
+     * Hash and store a new password. Access tokens issued before the change stop working.
+     * @throws ServerBusyException if the hashing queue is full
+     */
+    public CompletableFuture<Void> changePassword(User user, String newPassword) {
+        return passwordHasher.encode(newPassword).thenAccept(hash -> {
+            user.setPassword(hash);
+            saveUser(user);
+            accessTokenService.revokeAll(user.getId());
+        });
+    }
+
+    /**
+     * Sign an access token for a user who has just logged in
+     */
+    public String issueAccessToken(User user) {
+        return accessTokenService.issue(user);
+    }
+
+    /**
+     * Revoke the token the current request was made with, if any
+     */
+    public void logout() {
+        AuthenticatedUser.current().ifPresent(accessTokenService::revoke);
+    }
+
+    /**
+     * Re-hash a verified password with the current settings, unless it changed meanwhile.
+     * Best effort: if the pool is busy the next login tries again.
+     */
+    private void upgradePasswordHash(Long userId, String password, String verifiedHash) {
+        try {
+            passwordHasher.encode(password)
+                    .thenAccept(hash -> userRepository.findById(userId)
+                            .filter(user -> verifiedHash.equals(user.getPassword()))
+                            .ifPresent(user -> {
+                                user.setPassword(hash);
+                                userRepository.save(user);
+                            }))
+                    .exceptionally(e -> {
+                        log.warn("Could not upgrade password hash for user {}", userId, e);
+                        return null;
+                    });
+        } catch (ServerBusyException e) {
+            log.debug("Hashing pool busy, leaving password hash upgrade for user {} to a later login", userId);
+        }
     }
 
     public Optional<User> getUserByEmail(String email) {
@@ -69,10 +161,10 @@ public class UserService {
     }
 
     public void saveUser(User user) {
-        if (!user.getPassword().startsWith("$2a$")) { // Prevent double hashing
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+        if (!ENCODED_PASSWORD.matcher(user.getPassword()).matches()) { // Prevent double hashing
+            user.setPassword(passwordHasher.encode(user.getPassword()).join());
         }
-        userRepository.save(user);
+        userDirectory.update(userRepository.save(user));
     }    
 
     @Transactional
@@ -102,7 +194,9 @@ public class UserService {
             }
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDirectory.update(saved);
+        return saved;
     }
 
     /**
@@ -115,25 +209,47 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
 
+    /**
+     * Store a profile picture under its content hash and queue its thumbnails.
+     * A new picture gets a new URL, so browsers can cache each one forever.
+     */
     public User updateProfilePicture(Long userId, MultipartFile file) throws IOException {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        String extension = PICTURE_EXTENSIONS.get(file.getContentType());
+        if (extension == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Profile pictures must be JPEG, PNG, GIF or WebP images");
+        }
+
         // Ensure upload directory exists
-        Files.createDirectories(Path.of(uploadDir));
+        Path directory = Path.of(uploadDir);
+        Files.createDirectories(directory);
 
-        // Save file with a unique name
-        String fileName = "user_" + userId + "_" + file.getOriginalFilename();
-        Path filePath = Path.of(uploadDir + fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        Path temp = directory.resolve(UUID.randomUUID() + ".part");
+        try (InputStream content = file.getInputStream()) {
+            HashingCopy.Result copied = HashingCopy.copy(content, temp, MAX_PICTURE_BYTES);
+            String fileName = copied.sha256() + extension;
+            Path target = directory.resolve(fileName);
+            if (!Files.exists(target)) {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
 
-        // Update user's profile picture URL
-        user.setProfilePicture(fileName);
-        return userRepository.save(user);
+            user.setProfilePicture("/" + uploadDir + fileName);
+            User saved = userRepository.save(user);
+            thumbnailService.generateForAvatar(target, copied.sha256());
+            return saved;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    /**
+     * Typeahead lookup by name or email prefix for invite and member pickers
+     */
+    public List<UserSummaryDTO> searchUsers(String query, int limit) {
+        return userDirectory.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
     }
 
     /**
@@ -0,0 +1,169 @@
+package com.example.worksphere.config;
+
+import com.example.worksphere.entity.User;
+import com.example.worksphere.service.AccessTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Which API calls need a token, against stub endpoints at the real paths
+ */
+@SpringJUnitWebConfig(SecurityConfigTests.Config.class)
+public class SecurityConfigTests {
+
+    @Configuration
+    @EnableWebMvc
+    @EnableWebSecurity
+    @Import(SecurityConfig.class)
+    static class Config {
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer placeholders() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        AccessTokenService accessTokenService() {
+            return new AccessTokenService(new ObjectMapper(), "", 60);
+        }
+
+        @Bean
+        Endpoints endpoints() {
+            return new Endpoints();
+        }
+    }
+
+    @RestController
+    static class Endpoints {
+
+        @PostMapping("/api/users/login")
+        String login() {
+            return "ok";
+        }
+
+        @GetMapping("/api/users/check-email")
+        String checkEmail() {
+            return "ok";
+        }
+
+        @GetMapping("/api/users/search")
+        String search() {
+            return "ok";
+        }
+
+        @GetMapping("/api/users/{id}")
+        String user(@PathVariable Long id) {
+            return "ok";
+        }
+
+        @PutMapping("/api/users/{id}/password")
+        String password(@PathVariable Long id) {
+            return "ok";
+        }
+
+        @GetMapping("/api/task-activities/user/{userId}")
+        String activities(@PathVariable Long userId) {
+            return "ok";
+        }
+
+        @GetMapping("/api/tasks/my-tasks")
+        String myTasks() {
+            return "ok";
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    public void loginAndEmailCheckNeedNoToken() throws Exception {
+        mockMvc.perform(post("/api/users/login")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/check-email")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void apiCallWithoutTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/tasks/my-tasks").param("userId", "7"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"));
+        mockMvc.perform(put("/api/users/7/password")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/users/search")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void invalidTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/tasks/my-tasks").header("Authorization", "Bearer not.a.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void tokenOpensTheApi() throws Exception {
+        mockMvc.perform(get("/api/tasks/my-tasks").param("userId", "7").header("Authorization", bearer(7L)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/search").header("Authorization", bearer(7L)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void userIdParameterMustMatchToken() throws Exception {
+        mockMvc.perform(get("/api/tasks/my-tasks").param("userId", "8").header("Authorization", bearer(7L)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void userPathMustMatchToken() throws Exception {
+        mockMvc.perform(get("/api/users/7").header("Authorization", bearer(7L))).andExpect(status().isOk());
+        mockMvc.perform(put("/api/users/7/password").header("Authorization", bearer(7L))).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/8").header("Authorization", bearer(7L))).andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/8/password").header("Authorization", bearer(7L)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void activityPathMustMatchToken() throws Exception {
+        mockMvc.perform(get("/api/task-activities/user/7").header("Authorization", bearer(7L)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/task-activities/user/8").header("Authorization", bearer(7L)))
+                .andExpect(status().isForbidden());
+    }
+
+    private String bearer(Long userId) {
+        return "Bearer " + accessTokenService.issue(User.builder().id(userId).role(User.Role.USER).build());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.worksphere.config;
+
+import com.example.worksphere.dto.ProjectAccess;
+import com.example.worksphere.entity.Project;
+import com.example.worksphere.entity.ProjectMember;
+import com.example.worksphere.entity.User;
+import com.example.worksphere.service.AccessTokenService;
+import com.example.worksphere.service.ProjectAccessCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StompAuthInterceptorTests {
+
+    private final AccessTokenService accessTokenService = new AccessTokenService(new ObjectMapper(), "", 60);
+    private final ProjectAccessCache projectAccessCache = mock(ProjectAccessCache.class);
+    private final StompAuthInterceptor interceptor = new StompAuthInterceptor(accessTokenService, projectAccessCache);
+
+    @Test
+    public void connectWithTokenBecomesSessionPrincipal() {
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        assertThat(principal.getName()).isEqualTo("7");
+    }
+
+    @Test
+    public void connectWithoutTokenIsRejected() {
+        assertThatThrownBy(() -> connect(null)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    public void connectWithForgedTokenIsRejected() {
+        String token = tokenFor(7L);
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+
+        assertThatThrownBy(() -> connect("Bearer " + forged)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    public void ownNotificationQueueCanBeSubscribed() {
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        interceptor.preSend(subscribe(principal, "/user/queue/notifications"), null);
+    }
+
+    @Test
+    public void otherUsersTopicCannotBeSubscribed() {
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/topic/users/8/notifications"), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/queue/notifications-user123"), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    public void memberCanSubscribeToBoardAndProject() {
+        when(projectAccessCache.projectIdForBoard(3L)).thenReturn(10L);
+        when(projectAccessCache.resolve(7L, 10L)).thenReturn(access(ProjectMember.Status.ACTIVE, Project.Visibility.PRIVATE));
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        interceptor.preSend(subscribe(principal, "/topic/boards/3"), null);
+        interceptor.preSend(subscribe(principal, "/topic/projects/10"), null);
+    }
+
+    @Test
+    public void outsiderCannotSubscribeToPrivateBoardOrProject() {
+        when(projectAccessCache.projectIdForBoard(3L)).thenReturn(10L);
+        when(projectAccessCache.resolve(7L, 10L)).thenReturn(access(null, Project.Visibility.PRIVATE));
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/topic/boards/3"), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/topic/projects/10"), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    public void inviteeCannotSubscribeToPrivateProject() {
+        when(projectAccessCache.resolve(7L, 10L)).thenReturn(access(ProjectMember.Status.INVITED, Project.Visibility.PRIVATE));
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/topic/projects/10"), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    public void anyoneCanSubscribeToPublicProject() {
+        when(projectAccessCache.resolve(7L, 10L)).thenReturn(access(null, Project.Visibility.PUBLIC));
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        interceptor.preSend(subscribe(principal, "/topic/projects/10"), null);
+    }
+
+    @Test
+    public void unknownOrMalformedBoardIsRejected() {
+        when(projectAccessCache.projectIdForBoard(99L))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "KanbanBoard not found with id: 99"));
+        Principal principal = connect("Bearer " + tokenFor(7L));
+
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/topic/boards/99"), null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(principal, "/topic/boards/*"), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    public void subscribeWithoutConnectingIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(null, "/user/queue/notifications"), null))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private static ProjectAccess access(ProjectMember.Status status, Project.Visibility visibility) {
+        return new ProjectAccess(10L, 1L, visibility, status == null ? null : ProjectMember.Role.TEAM_MEMBER, status);
+    }
+
+    private String tokenFor(Long userId) {
+        return accessTokenService.issue(User.builder().id(userId).role(User.Role.USER).build());
+    }
+
+    private Principal connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        interceptor.preSend(message, null);
+        Principal principal = accessor.getUser();
+        assertThat(principal).isNotNull();
+        return principal;
+    }
+
+    private static Message<byte[]> subscribe(Principal principal, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(principal);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
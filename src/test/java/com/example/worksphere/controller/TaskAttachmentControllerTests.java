@@ -0,0 +1,33 @@
+package com.example.worksphere.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskAttachmentControllerTests {
+
+    @Test
+    public void passiveMediaMayBeShownInline() {
+        assertThat(TaskAttachmentController.isSafeInline("image/png")).isTrue();
+        assertThat(TaskAttachmentController.isSafeInline("image/jpeg")).isTrue();
+        assertThat(TaskAttachmentController.isSafeInline("application/pdf")).isTrue();
+        assertThat(TaskAttachmentController.isSafeInline("audio/mpeg")).isTrue();
+        assertThat(TaskAttachmentController.isSafeInline("video/mp4")).isTrue();
+    }
+
+    @Test
+    public void scriptableTypesAreNeverInline() {
+        assertThat(TaskAttachmentController.isSafeInline("text/html")).isFalse();
+        assertThat(TaskAttachmentController.isSafeInline("text/html; charset=utf-8")).isFalse();
+        assertThat(TaskAttachmentController.isSafeInline("image/svg+xml")).isFalse();
+        assertThat(TaskAttachmentController.isSafeInline("application/xhtml+xml")).isFalse();
+        assertThat(TaskAttachmentController.isSafeInline("text/xml")).isFalse();
+        assertThat(TaskAttachmentController.isSafeInline("application/javascript")).isFalse();
+    }
+
+    @Test
+    public void malformedTypeIsNotInline() {
+        assertThat(TaskAttachmentController.isSafeInline("not a type")).isFalse();
+        assertThat(TaskAttachmentController.isSafeInline("")).isFalse();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.worksphere.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileResponseWriterTests {
+
+    private static final int LENGTH = 500;
+
+    @TempDir
+    Path directory;
+
+    private final FileResponseWriter writer = new FileResponseWriter();
+    private Path file;
+    private byte[] content;
+
+    @BeforeEach
+    public void createFile() throws IOException {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(directory.resolve("content.bin"), content);
+    }
+
+    @Test
+    public void satisfiableRangeIsPartialContent() throws IOException {
+        MockHttpServletResponse response = get("bytes=100-199");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 100-199/500");
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+    }
+
+    @Test
+    public void rangeEndIsClampedToFile() throws IOException {
+        MockHttpServletResponse response = get("bytes=450-999");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 450-499/500");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 450, 500));
+    }
+
+    @Test
+    public void openRangeStartingPastEndIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(get("bytes=1000-"));
+    }
+
+    @Test
+    public void closedRangeStartingPastEndIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(get("bytes=600-700"));
+    }
+
+    @Test
+    public void rangeStartingAtEndIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(get("bytes=500-"));
+    }
+
+    @Test
+    public void suffixRangeIsTail() throws IOException {
+        MockHttpServletResponse response = get("bytes=-50");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 450-499/500");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 450, 500));
+    }
+
+    @Test
+    public void emptySuffixRangeIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(get("bytes=-0"));
+    }
+
+    @Test
+    public void malformedRangeIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(get("bytes=200-100"));
+    }
+
+    @Test
+    public void multipleRangesGetWholeFile() throws IOException {
+        MockHttpServletResponse response = get("bytes=0-9,20-29");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Content-Range")).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    private MockHttpServletResponse get(String range) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader("Range", range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(new ServletWebRequest(request, response), file, "\"v1\"",
+                "application/octet-stream", null, CacheControl.noCache());
+        return response;
+    }
+
+    private static void assertNotSatisfiable(MockHttpServletResponse response) {
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */500");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.worksphere.service;
+
+import com.example.worksphere.entity.KanbanTask;
+import com.example.worksphere.repository.KanbanTaskRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sparse sort keys for kanban cards, against an in-memory column standing in for kanban_tasks
+ */
+@ExtendWith(MockitoExtension.class)
+public class KanbanBoardServicePositionTests {
+
+    private static final Long COLUMN_ID = 1L;
+
+    @Mock
+    private KanbanTaskRepository kanbanTaskRepository;
+
+    @InjectMocks
+    private KanbanBoardService kanbanBoardService;
+
+    private final List<KanbanTask> cards = new ArrayList<>();
+
+    @BeforeEach
+    public void fakeColumn() {
+        lenient().when(kanbanTaskRepository.findMaxPosition(COLUMN_ID)).thenAnswer(invocation ->
+                cards.stream().map(KanbanTask::getPosition).max(Long::compare));
+        lenient().when(kanbanTaskRepository.findPositionsInColumn(eq(COLUMN_ID), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    Long excludeId = invocation.getArgument(1);
+                    int offset = invocation.getArgument(2);
+                    int limit = invocation.getArgument(3);
+                    return ordered().stream()
+                            .filter(card -> excludeId == null || !card.getId().equals(excludeId))
+                            .skip(offset)
+                            .limit(limit)
+                            .map(KanbanTask::getPosition)
+                            .toList();
+                });
+        lenient().when(kanbanTaskRepository.findByKanbanColumnIdOrderByPositionAscIdAsc(COLUMN_ID))
+                .thenAnswer(invocation -> ordered());
+    }
+
+    @Test
+    public void firstCardOfEmptyColumnGetsOneGap() {
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, null)).isEqualTo(1024);
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, 0)).isEqualTo(1024);
+    }
+
+    @Test
+    public void insertAtHeadGoesOneGapBeforeFirstCard() {
+        column(1024, 2048);
+
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, 0)).isEqualTo(0);
+    }
+
+    @Test
+    public void insertAtTailGoesOneGapAfterLastCard() {
+        column(1024, 2048);
+
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, null)).isEqualTo(3072);
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, 2)).isEqualTo(3072);
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, 10)).isEqualTo(3072);
+    }
+
+    @Test
+    public void insertBetweenNeighboursTakesTheMidpoint() {
+        column(1024, 2048, 3072);
+
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, 1)).isEqualTo(1536);
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, 2)).isEqualTo(2560);
+        verify(kanbanTaskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void movedCardIsNotItsOwnNeighbour() {
+        column(1024, 2048, 3072);
+
+        // Card 1 moved to index 1 lands between cards 2 and 3
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, 1L, 1)).isEqualTo(2560);
+        // Card 3 moved to the head
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, 3L, 0)).isEqualTo(0);
+    }
+
+    @Test
+    public void exhaustedGapRespacesColumnKeepingOrder() {
+        column(1024, 1025, 1026);
+
+        long position = kanbanBoardService.positionForIndex(COLUMN_ID, null, 1);
+
+        verify(kanbanTaskRepository).saveAll(anyList());
+        assertThat(cards).extracting(KanbanTask::getId).containsExactly(1L, 2L, 3L);
+        assertThat(cards).extracting(KanbanTask::getPosition).containsExactly(1024L, 2048L, 3072L);
+        assertThat(position).isEqualTo(1536);
+    }
+
+    @Test
+    public void respacingBreaksTiesById() {
+        column(500, 500);
+
+        long position = kanbanBoardService.positionForIndex(COLUMN_ID, null, 1);
+
+        assertThat(cards).extracting(KanbanTask::getPosition).containsExactly(1024L, 2048L);
+        assertThat(position).isEqualTo(1536);
+    }
+
+    @Test
+    public void tailInsertNeverNeedsRespacing() {
+        column(1024, 1025);
+
+        assertThat(kanbanBoardService.positionForIndex(COLUMN_ID, null, null)).isEqualTo(2049);
+        verify(kanbanTaskRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Cards with ids 1..n at the given positions
+     */
+    private void column(long... positions) {
+        for (long position : positions) {
+            cards.add(KanbanTask.builder().id((long) cards.size() + 1).position(position).build());
+        }
+    }
+
+    private List<KanbanTask> ordered() {
+        return cards.stream()
+                .sorted(Comparator.comparing(KanbanTask::getPosition).thenComparing(KanbanTask::getId))
+                .toList();
+    }
+}
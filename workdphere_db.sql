@@ -58,6 +58,7 @@ CREATE TABLE tasks (
     deadline         DATE DEFAULT NULL,
     created_by       BIGINT NOT NULL,
     last_updated_by  BIGINT DEFAULT NULL,  -- Added field to track who last updated the task
+    search_labels    TEXT NULL,  -- Label names, kept in step by TaskService for full-text search
     created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE,
@@ -71,6 +72,21 @@ CREATE INDEX idx_task_priority ON tasks(priority);
 CREATE INDEX idx_task_status ON tasks(status);
 CREATE INDEX idx_task_assigned_to ON tasks(assigned_to);
 CREATE INDEX idx_task_created_by ON tasks(created_by);
+-- Keyset pagination: InnoDB appends the primary key, so these cover (filter, deadline, id)
+CREATE INDEX idx_task_project_deadline ON tasks(project_id, deadline);
+CREATE INDEX idx_task_assigned_deadline ON tasks(assigned_to, deadline);
+-- Task search (/api/tasks/search); Hibernate cannot create FULLTEXT indexes, so it lives here
+CREATE FULLTEXT INDEX ft_task_search ON tasks(title, description, search_labels);
+
+-- Task counts per project by status and priority, maintained by TaskService (see ProjectTaskCounter)
+CREATE TABLE project_task_counts (
+    project_id  BIGINT NOT NULL,
+    status      ENUM('NOT_STARTED', 'PENDING', 'IN_PROGRESS', 'COMPLETED', 'ON_HOLD', 'CANCELED') NOT NULL,
+    priority    ENUM('LOW', 'MEDIUM', 'HIGH', 'CRITICAL') NOT NULL,
+    task_count  INT NOT NULL,
+    PRIMARY KEY (project_id, status, priority),
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+);
 
 -- Enhanced task_activity_log to include user_name directly
 CREATE TABLE task_activity_log (
@@ -85,6 +101,9 @@ CREATE TABLE task_activity_log (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Activity feeds read one task's rows newest first; the project feed walks them per task
+CREATE INDEX idx_task_activity_task_created ON task_activity_log (task_id, created_at);
+
 CREATE TABLE labels (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     name VARCHAR(50) NOT NULL UNIQUE,
@@ -99,12 +118,23 @@ CREATE TABLE task_attachments (
     task_id      BIGINT NOT NULL,
     file_name    VARCHAR(255) NOT NULL,
     file_path    VARCHAR(255) NOT NULL,  -- Stores URL or file path
+    file_size    BIGINT,
+    content_type VARCHAR(127),
+    content_hash CHAR(64),               -- Hex SHA-256 of the stored bytes
     uploaded_by  BIGINT NOT NULL,
     created_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
     FOREIGN KEY (uploaded_by) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Attachment content, stored once per distinct SHA-256 and shared by every attachment with it
+CREATE TABLE attachment_blobs (
+    content_hash CHAR(64) PRIMARY KEY,
+    size         BIGINT NOT NULL,
+    ref_count    INT NOT NULL,
+    created_at   TIMESTAMP NOT NULL
+);
+
 CREATE TABLE notifications (
     id           BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id      BIGINT NOT NULL,
@@ -118,6 +148,21 @@ CREATE TABLE notifications (
     FOREIGN KEY(project_id) REFERENCES projects(id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_notification_user_created ON notifications(user_id, created_at, id);
+
+-- Read notifications moved out of the live table by the nightly archival job
+CREATE TABLE notifications_archive (
+    id           BIGINT PRIMARY KEY,
+    user_id      BIGINT NOT NULL,
+    message      TEXT NOT NULL,
+    is_read      BOOLEAN NOT NULL,
+    invite_id    BIGINT DEFAULT NULL,
+    project_id   BIGINT NOT NULL,
+    created_at   TIMESTAMP NOT NULL,
+    archived_at  TIMESTAMP NOT NULL,
+    INDEX idx_notification_archive_user_created (user_id, created_at)
+);
+
 CREATE TABLE task_comments (
     id           BIGINT AUTO_INCREMENT PRIMARY KEY,
     task_id      BIGINT NOT NULL,
@@ -150,11 +195,13 @@ CREATE TABLE kanban_tasks (
     id           BIGINT AUTO_INCREMENT PRIMARY KEY,
     column_id    BIGINT NOT NULL,
     task_id      BIGINT NOT NULL,
-    position     INT NOT NULL,
+    position     BIGINT NOT NULL,
     FOREIGN KEY (column_id) REFERENCES kanban_columns(id) ON DELETE CASCADE,
     FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_kanban_task_column_position ON kanban_tasks(column_id, position);
+
 CREATE TABLE system_logs (
     id            BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id       BIGINT NULL,  -- NULL if action is system-generated
@@ -182,6 +229,15 @@ JOIN
 ORDER BY 
     tal.created_at DESC;
 
+-- Activity triggers from earlier versions of this script; the application now writes these rows
+DROP TRIGGER IF EXISTS after_task_insert;
+DROP TRIGGER IF EXISTS after_task_update;
+DROP TRIGGER IF EXISTS before_task_delete;
+DROP TRIGGER IF EXISTS after_label_insert;
+DROP TRIGGER IF EXISTS before_label_delete;
+DROP TRIGGER IF EXISTS after_attachment_insert;
+DROP TRIGGER IF EXISTS before_attachment_delete;
+
 -- Triggers for automatic task activity logging
 DELIMITER //
 
@@ -224,190 +280,9 @@ BEGIN
     CLOSE project_cursor;
 END//
 
--- TRIGGER FOR TASK CREATION
-CREATE TRIGGER after_task_insert
-AFTER INSERT ON tasks
-FOR EACH ROW
-BEGIN
-    DECLARE user_fullname VARCHAR(101);
-    DECLARE assigned_user_name VARCHAR(101);
-    
-    -- Get the full name of the user who created the task
-    SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-    FROM users WHERE id = NEW.created_by;
-    
-    -- Log task creation with user name
-    INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-    VALUES (NEW.id, NEW.created_by, user_fullname, 'CREATED', 
-        JSON_OBJECT(
-            'title', NEW.title,
-            'description', NEW.description,
-            'status', NEW.status,
-            'priority', NEW.priority,
-            'deadline', NEW.deadline,
-            'assigned_to', NEW.assigned_to
-        )
-    );
-    
-    -- Log assignment if task was assigned during creation
-    IF NEW.assigned_to IS NOT NULL THEN
-        -- Get the full name of the assigned user
-        SELECT CONCAT(first_name, ' ', last_name) INTO assigned_user_name
-        FROM users WHERE id = NEW.assigned_to;
-        
-        INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-        VALUES (NEW.id, NEW.created_by, user_fullname, 'ASSIGNED', 
-            JSON_OBJECT(
-                'assigned_to', NEW.assigned_to,
-                'assigned_to_name', assigned_user_name
-            )
-        );
-    END IF;
-END//
-
--- TRIGGER FOR TASK UPDATES
-CREATE TRIGGER after_task_update
-AFTER UPDATE ON tasks
-FOR EACH ROW
-BEGIN
-    DECLARE changes JSON DEFAULT JSON_OBJECT();
-    DECLARE logging_user_id BIGINT;
-    DECLARE user_fullname VARCHAR(101);
-    DECLARE old_assignee_name VARCHAR(101) DEFAULT NULL;
-    DECLARE new_assignee_name VARCHAR(101) DEFAULT NULL;
-    
-    -- Use last_updated_by if available, otherwise fall back to created_by
-    SET logging_user_id = COALESCE(NEW.last_updated_by, NEW.created_by);
-    
-    -- Get the full name of the user who updated the task
-    SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-    FROM users WHERE id = logging_user_id;
-    
-    -- Check and log status change
-    IF NEW.status != OLD.status THEN
-        INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-        VALUES (NEW.id, logging_user_id, user_fullname, 'STATUS_CHANGED', 
-            JSON_OBJECT(
-                'old_status', OLD.status,
-                'new_status', NEW.status
-            )
-        );
-    END IF;
-    
-    -- Check and log assignment change
-    IF COALESCE(NEW.assigned_to, 0) != COALESCE(OLD.assigned_to, 0) THEN
-        -- Get old assignee name if exists
-        IF OLD.assigned_to IS NOT NULL THEN
-            SELECT CONCAT(first_name, ' ', last_name) INTO old_assignee_name
-            FROM users WHERE id = OLD.assigned_to;
-        END IF;
-        
-        -- Get new assignee name if exists
-        IF NEW.assigned_to IS NOT NULL THEN
-            SELECT CONCAT(first_name, ' ', last_name) INTO new_assignee_name
-            FROM users WHERE id = NEW.assigned_to;
-        END IF;
-        
-        IF NEW.assigned_to IS NULL THEN
-            -- Task was unassigned
-            INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-            VALUES (NEW.id, logging_user_id, user_fullname, 'UNASSIGNED', 
-                JSON_OBJECT(
-                    'previous_assignee', OLD.assigned_to,
-                    'previous_assignee_name', old_assignee_name
-                )
-            );
-        ELSE
-            -- Task was assigned or reassigned
-            INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-            VALUES (NEW.id, logging_user_id, user_fullname, 'ASSIGNED', 
-                JSON_OBJECT(
-                    'previous_assignee', OLD.assigned_to,
-                    'previous_assignee_name', old_assignee_name,
-                    'new_assignee', NEW.assigned_to,
-                    'new_assignee_name', new_assignee_name
-                )
-            );
-        END IF;
-    END IF;
-    
-    -- Check and log priority change
-    IF NEW.priority != OLD.priority THEN
-        INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-        VALUES (NEW.id, logging_user_id, user_fullname, 'PRIORITY_CHANGED', 
-            JSON_OBJECT(
-                'old_priority', OLD.priority,
-                'new_priority', NEW.priority
-            )
-        );
-    END IF;
-    
-    -- Check and log deadline change
-    IF COALESCE(NEW.deadline, '1900-01-01') != COALESCE(OLD.deadline, '1900-01-01') THEN
-        INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-        VALUES (NEW.id, logging_user_id, user_fullname, 'DEADLINE_CHANGED', 
-            JSON_OBJECT(
-                'old_deadline', OLD.deadline,
-                'new_deadline', NEW.deadline
-            )
-        );
-    END IF;
-    
-    -- Check and log title or description change
-    IF NEW.title != OLD.title OR COALESCE(NEW.description, '') != COALESCE(OLD.description, '') THEN
-        -- Build changes JSON
-        IF NEW.title != OLD.title THEN
-            SET changes = JSON_SET(changes, '$.title', JSON_OBJECT('old', OLD.title, 'new', NEW.title));
-        END IF;
-        
-        IF COALESCE(NEW.description, '') != COALESCE(OLD.description, '') THEN
-            SET changes = JSON_SET(changes, '$.description', JSON_OBJECT('old', OLD.description, 'new', NEW.description));
-        END IF;
-        
-        INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-        VALUES (NEW.id, logging_user_id, user_fullname, 'UPDATED', changes);
-    END IF;
-END//
-
--- TRIGGER FOR TASK DELETION
-CREATE TRIGGER before_task_delete
-BEFORE DELETE ON tasks
-FOR EACH ROW
-BEGIN
-    DECLARE delete_user_id BIGINT;
-    DECLARE user_fullname VARCHAR(101);
-    
-    -- Try to get the value from a user-defined variable (needs to be set before deletion)
-    SET delete_user_id = @current_user_id;
-    
-    -- If not set, default to the last updater or creator of the task
-    IF delete_user_id IS NULL THEN
-        SET delete_user_id = COALESCE(OLD.last_updated_by, OLD.created_by);
-    END IF;
-    
-    -- Default to a system user if we still don't have a user ID
-    IF delete_user_id IS NULL THEN
-        SET delete_user_id = 1; -- Assuming user ID 1 is a system user
-        SET user_fullname = 'System User';
-    ELSE
-        -- Get the full name of the user who is deleting the task
-        SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-        FROM users WHERE id = delete_user_id;
-    END IF;
-    
-    -- Log task deletion with user name
-    INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-    VALUES (OLD.id, delete_user_id, user_fullname, 'DELETED', 
-        JSON_OBJECT(
-            'title', OLD.title,
-            'description', OLD.description,
-            'status', OLD.status,
-            'priority', OLD.priority,
-            'deadline', OLD.deadline,
-            'assigned_to', OLD.assigned_to
-        )
-    );
-END//
+-- Task, label and attachment activity is written by the application (TaskActivityWriter),
+-- batched and off the row-lock path. Comments have no application write path yet, so
+-- their trigger stays.
 
 -- TRIGGER FOR COMMENT CREATION
 CREATE TRIGGER after_comment_insert
@@ -430,131 +305,6 @@ BEGIN
     );
 END//
 
--- Adding triggers for Labels
-CREATE TRIGGER after_label_insert
-AFTER INSERT ON labels
-FOR EACH ROW
-BEGIN
-    DECLARE task_creator_id BIGINT;
-    DECLARE user_fullname VARCHAR(101);
-    
-    -- Since we don't have created_by in labels, use the task's created_by
-    SELECT created_by INTO task_creator_id
-    FROM tasks
-    WHERE id = NEW.task_id;
-    
-    -- Get the user's name
-    SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-    FROM users
-    WHERE id = task_creator_id;
-    
-    -- Log label addition with user name
-    INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-    VALUES (NEW.task_id, task_creator_id, user_fullname, 'LABEL_ADDED', 
-        JSON_OBJECT(
-            'label_id', NEW.id,
-            'label_name', NEW.name,
-            'label_color', NEW.color
-        )
-    );
-END//
-
--- TRIGGER FOR LABEL DELETION
-CREATE TRIGGER before_label_delete
-BEFORE DELETE ON labels
-FOR EACH ROW
-BEGIN
-    DECLARE delete_user_id BIGINT;
-    DECLARE user_fullname VARCHAR(101);
-    
-    -- Try to get the value from a user-defined variable (should be set before deletion)
-    SET delete_user_id = @current_user_id;
-    
-    -- If not set, use the task's last_updated_by or created_by
-    IF delete_user_id IS NULL THEN
-        SELECT COALESCE(last_updated_by, created_by) INTO delete_user_id
-        FROM tasks
-        WHERE id = OLD.task_id;
-    END IF;
-    
-    -- Default to a system user if we still don't have a user ID
-    IF delete_user_id IS NULL THEN
-        SET delete_user_id = 1; -- Assuming user ID 1 is a system user
-        SET user_fullname = 'System User';
-    ELSE
-        -- Get the full name of the user who is deleting the label
-        SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-        FROM users WHERE id = delete_user_id;
-    END IF;
-    
-    -- Log label removal with user name
-    INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-    VALUES (OLD.task_id, delete_user_id, user_fullname, 'LABEL_REMOVED', 
-        JSON_OBJECT(
-            'label_id', OLD.id,
-            'label_name', OLD.name,
-            'label_color', OLD.color
-        )
-    );
-END//
-
--- TRIGGER FOR ATTACHMENT CREATION
-CREATE TRIGGER after_attachment_insert
-AFTER INSERT ON task_attachments
-FOR EACH ROW
-BEGIN
-    DECLARE user_fullname VARCHAR(101);
-    
-    -- Get the full name of the user who added the attachment
-    SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-    FROM users WHERE id = NEW.uploaded_by;
-    
-    -- Log attachment addition with user name
-    INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-    VALUES (NEW.task_id, NEW.uploaded_by, user_fullname, 'ATTACHMENT_ADDED', 
-        JSON_OBJECT(
-            'attachment_id', NEW.id,
-            'file_name', NEW.file_name
-        )
-    );
-END//
-
--- TRIGGER FOR ATTACHMENT DELETION
-CREATE TRIGGER before_attachment_delete
-BEFORE DELETE ON task_attachments
-FOR EACH ROW
-BEGIN
-    DECLARE delete_user_id BIGINT;
-    DECLARE user_fullname VARCHAR(101);
-    
-    -- Try to get the value from a user-defined variable (needs to be set before deletion)
-    SET delete_user_id = @current_user_id;
-    
-    -- If not set, default to the uploader of the attachment
-    IF delete_user_id IS NULL THEN
-        SET delete_user_id = OLD.uploaded_by;
-    END IF;
-    
-    -- Default to a system user if we still don't have a user ID
-    IF delete_user_id IS NULL THEN
-        SET delete_user_id = 1; -- Assuming user ID 1 is a system user
-        SET user_fullname = 'System User';
-    ELSE
-        -- Get the full name of the user who is deleting the attachment
-        SELECT CONCAT(first_name, ' ', last_name) INTO user_fullname
-        FROM users WHERE id = delete_user_id;
-    END IF;
-    
-    -- Log attachment removal with user name
-    INSERT INTO task_activity_log (task_id, user_id, user_name, action, changed_data)
-    VALUES (OLD.task_id, delete_user_id, user_fullname, 'ATTACHMENT_REMOVED', 
-        JSON_OBJECT(
-            'attachment_id', OLD.id,
-            'file_name', OLD.file_name
-        )
-    );
-END//
-
 DELIMITER ;
 
 -- Set the DELIMITER to allow for complex trigger definitions
@@ -776,6 +526,16 @@ INSERT INTO labels (name, color, task_id) VALUES
 ('Testing', '#32CD32', 9),
 ('Feedback', '#FFD700', 9);
 
+-- Seed labels bypass TaskService, so fill the search column here
+UPDATE tasks t SET search_labels = (
+    SELECT GROUP_CONCAT(l.name SEPARATOR ' ') FROM labels l WHERE l.task_id = t.id
+);
+
+-- Seed tasks bypass TaskService too; this also rebuilds the counts from scratch if they drift
+INSERT INTO project_task_counts (project_id, status, priority, task_count)
+SELECT project_id, status, priority, COUNT(*) FROM tasks GROUP BY project_id, status, priority
+ON DUPLICATE KEY UPDATE task_count = VALUES(task_count);
+
 -- KANBAN BOARDS
 INSERT INTO kanban_boards (project_id) VALUES
 (1), (2), (3);